@@ -0,0 +1,11 @@
+package org.morejdbc.benchmarks;
+
+public class BenchmarkFunctions {
+
+    public static int mult(int arg1, int arg2) {
+        return arg1 * arg2;
+    }
+
+    private BenchmarkFunctions() {
+    }
+}
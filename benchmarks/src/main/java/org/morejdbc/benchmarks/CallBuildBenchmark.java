@@ -0,0 +1,94 @@
+package org.morejdbc.benchmarks;
+
+import org.morejdbc.CallDialects;
+import org.morejdbc.JdbcCall;
+import org.morejdbc.NamedCallTemplate;
+import org.morejdbc.NamedJdbcCall;
+import org.morejdbc.Out;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.NamedJdbcCall.call;
+import static org.morejdbc.SqlTypes.BIGINT;
+import static org.morejdbc.SqlTypes.INTEGER;
+
+/**
+ * Construction of the call objects and sql generation, no database calls involved
+ * (the connection is only passed to the dialect).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallBuildBenchmark {
+
+    private static final String[] TEST_MATH_NAMES = {"val1", "val2", "out_sum", "out_mlt"};
+
+    private static final NamedCallTemplate<Void> TEST_MATH =
+            NamedCallTemplate.procedure("test_math", TEST_MATH_NAMES);
+
+    private Connection connection;
+
+    private int val1 = 1;
+    private long val2 = 2L;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + getClass().getSimpleName());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public JdbcCall jdbcCall() {
+        return callSql("{call test_math(?, ?, ?, ?)}")
+                .in(val1)
+                .in(val2)
+                .out(Out.of(INTEGER))
+                .out(Out.of(BIGINT));
+    }
+
+    @Benchmark
+    public NamedJdbcCall<Void> namedJdbcCall() {
+        return call("test_math")
+                .in("val1", val1)
+                .in("val2", val2)
+                .out("out_sum", Out.of(INTEGER))
+                .out("out_mlt", Out.of(BIGINT));
+    }
+
+    @Benchmark
+    public NamedCallTemplate.Invocation<Void> templateInvocation() {
+        return TEST_MATH.bind()
+                .in(val1)
+                .in(val2)
+                .out(Out.of(INTEGER))
+                .out(Out.of(BIGINT));
+    }
+
+    @Benchmark
+    public String namedCallSql() throws SQLException {
+        return CallDialects.ORACLE.getCallSql(connection, "test_math", false, TEST_MATH_NAMES).getSql();
+    }
+}
@@ -0,0 +1,96 @@
+package org.morejdbc.benchmarks;
+
+import org.morejdbc.CallableStatementCache;
+import org.morejdbc.Out;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.SqlTypes.INTEGER;
+
+/**
+ * End-to-end call of H2 function compared to the raw CallableStatement.
+ * Run with {@code -prof gc} to see the allocation rate per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteBenchmark {
+
+    private static final String SQL = "{? = call mult(?, ?)}";
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private CallableStatementCache statementCache;
+
+    private int arg1 = 2;
+    private int arg2 = 3;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + getClass().getSimpleName());
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        jdbc.execute("CREATE ALIAS IF NOT EXISTS mult FOR \"org.morejdbc.benchmarks.BenchmarkFunctions.mult\"");
+        statementCache = new CallableStatementCache(16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        statementCache.clear();
+        connection.close();
+    }
+
+    @Benchmark
+    public int rawCallableStatement() throws SQLException {
+        try (CallableStatement cs = connection.prepareCall(SQL)) {
+            cs.registerOutParameter(1, Types.INTEGER);
+            cs.setInt(2, arg1);
+            cs.setInt(3, arg2);
+            cs.execute();
+            return cs.getInt(1);
+        }
+    }
+
+    @Benchmark
+    public Integer jdbcCall() {
+        Out<Integer> out = Out.of(INTEGER);
+        jdbc.execute(callSql(SQL)
+                .out(out)
+                .in(arg1)
+                .in(arg2));
+        return out.get();
+    }
+
+    @Benchmark
+    public Integer jdbcCallStatementCache() {
+        Out<Integer> out = Out.of(INTEGER);
+        jdbc.execute(callSql(SQL)
+                .statementCache(statementCache)
+                .out(out)
+                .in(arg1)
+                .in(arg2));
+        return out.get();
+    }
+}
@@ -0,0 +1,99 @@
+package org.morejdbc.benchmarks;
+
+import org.morejdbc.CallableStatementCache;
+import org.morejdbc.IntOut;
+import org.morejdbc.Out;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.SqlTypes.INTEGER;
+
+/**
+ * Binding of the boxed values via SqlType compared to the primitive IN/OUT parameters and to the direct
+ * CallableStatement methods. The statement is cached, so the difference is the cost of the binding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlTypeBenchmark {
+
+    private static final String SQL = "{? = call mult(?, ?)}";
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private CallableStatementCache statementCache;
+    private CallableStatement cs;
+
+    private Integer boxedValue = 3;
+    private int value = 3;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + getClass().getSimpleName());
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        jdbc.execute("CREATE ALIAS IF NOT EXISTS mult FOR \"org.morejdbc.benchmarks.BenchmarkFunctions.mult\"");
+        statementCache = new CallableStatementCache(16);
+        cs = connection.prepareCall(SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        cs.close();
+        statementCache.clear();
+        connection.close();
+    }
+
+    @Benchmark
+    public Integer boxedSqlType() {
+        Out<Integer> out = Out.of(INTEGER);
+        jdbc.execute(callSql(SQL)
+                .statementCache(statementCache)
+                .out(out)
+                .in(boxedValue)
+                .in(boxedValue));
+        return out.get();
+    }
+
+    @Benchmark
+    public int primitive() {
+        IntOut out = IntOut.of();
+        jdbc.execute(callSql(SQL)
+                .statementCache(statementCache)
+                .out(out)
+                .in(value)
+                .in(value));
+        return out.getAsInt();
+    }
+
+    @Benchmark
+    public int rawCachedStatement() throws SQLException {
+        cs.registerOutParameter(1, Types.INTEGER);
+        cs.setInt(2, value);
+        cs.setInt(3, value);
+        cs.execute();
+        return cs.getInt(1);
+    }
+}
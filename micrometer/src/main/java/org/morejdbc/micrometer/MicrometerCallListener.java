@@ -0,0 +1,74 @@
+package org.morejdbc.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.morejdbc.CallEvent;
+import org.morejdbc.CallListener;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publishes the call events as Micrometer meters:
+ * <ul>
+ * <li>{@code morejdbc.call} timer of the whole call, tags {@code name}, {@code outcome}, {@code exception}</li>
+ * <li>{@code morejdbc.call.phase} timer of each phase, tags {@code name}, {@code phase}
+ * ({@code prepare}, {@code bind}, {@code execute}, {@code extract})</li>
+ * <li>{@code morejdbc.call.cursor.rows} summary of the cursor rows, tag {@code name}</li>
+ * </ul>
+ * The {@code name} tag is the procedure name, the calls without name ({@link org.morejdbc.JdbcCall})
+ * are tagged as {@code none} to keep the cardinality bounded.
+ * <p>
+ * Usage example:
+ * <pre>
+ * CallListener listener = new MicrometerCallListener(meterRegistry);
+ * NamedCallTemplate&lt;Void&gt; template = NamedCallTemplate.procedure("test_math", "val1", "val2")
+ *         .withListener(listener);
+ * </pre>
+ */
+public class MicrometerCallListener implements CallListener {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    public MicrometerCallListener(MeterRegistry registry) {
+        this.registry = requireNonNull(registry, "registry");
+    }
+
+    @Override
+    public void onCall(CallEvent event) {
+        String name = event.getName() != null ? event.getName() : NONE;
+        Throwable error = event.getError();
+        Tags tags = Tags.of("name", name,
+                "outcome", error == null ? "success" : "error",
+                "exception", error == null ? NONE : error.getClass().getSimpleName());
+        Timer.builder("morejdbc.call")
+                .tags(tags)
+                .register(registry)
+                .record(event.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        recordPhase(name, "prepare", event.getPrepareNanos());
+        recordPhase(name, "bind", event.getBindNanos());
+        recordPhase(name, "execute", event.getExecuteNanos());
+        recordPhase(name, "extract", event.getExtractNanos());
+
+        if (event.getCursorRows() >= 0) {
+            DistributionSummary.builder("morejdbc.call.cursor.rows")
+                    .tag("name", name)
+                    .register(registry)
+                    .record(event.getCursorRows());
+        }
+    }
+
+    private void recordPhase(String name, String phase, long nanos) {
+        Timer.builder("morejdbc.call.phase")
+                .tag("name", name)
+                .tag("phase", phase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,43 @@
+package org.morejdbc.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.morejdbc.IntOut;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.morejdbc.JdbcCall.callSql;
+
+public class MicrometerCallListenerTest {
+
+    @Test
+    public void testTimers() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:micrometer", "sa", "", true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE ALIAS IF NOT EXISTS abs_int FOR \"java.lang.Math.abs(int)\"");
+
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            MicrometerCallListener listener = new MicrometerCallListener(registry);
+            for (int i = 0; i < 3; i++) {
+                jdbc.execute(callSql("{? = call abs_int(?)}")
+                        .listener(listener)
+                        .out(IntOut.of())
+                        .in(-i));
+            }
+
+            Timer timer = registry.find("morejdbc.call")
+                    .tags("name", "none", "outcome", "success")
+                    .timer();
+            assertNotNull(timer);
+            assertEquals(3, timer.count());
+            assertNotNull(registry.find("morejdbc.call.phase").tag("phase", "execute").timer());
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -106,3 +106,31 @@ begin
                  connect by instr(extra_string, ';', 1, level) > 0
              );
 end;
+
+--changeset seregamorph:FEA-1-create-schema-10 splitStatements:false
+CREATE FUNCTION sum_numbers(ids SYS.ODCINUMBERLIST)
+    return number
+    is
+    result number;
+begin
+    select sum(column_value) into result from table(ids);
+    return result;
+end;
+
+--changeset seregamorph:FEA-1-create-schema-11 splitStatements:false
+CREATE PROCEDURE split_names(names varchar2, out_names OUT SYS.ODCIVARCHAR2LIST)
+    is
+begin
+    select regexp_substr(names, '[^,]+', 1, level)
+    bulk collect into out_names
+    from dual
+    connect by regexp_substr(names, '[^,]+', 1, level) is not null;
+end;
+
+--changeset seregamorph:FEA-1-create-schema-12 splitStatements:false
+CREATE PROCEDURE proc_two_cursors(extra_string varchar2, v_cur1 OUT sys_refcursor, v_cur2 OUT sys_refcursor)
+    is
+begin
+    v_cur1 := get_extras_tab(extra_string);
+    v_cur2 := get_extras_tab(extra_string);
+end;
@@ -26,3 +26,31 @@ BEGIN
 END; $$
 LANGUAGE plpgsql;
 
+--changeset seregamorph:FEA-1-create-schema-3 splitStatements:false
+CREATE OR REPLACE FUNCTION sum_int8(ids int8[])
+  RETURNS NUMERIC AS $$
+BEGIN
+  RETURN (SELECT sum(id) FROM unnest(ids) AS id);
+END; $$
+LANGUAGE plpgsql;
+
+--changeset seregamorph:FEA-1-create-schema-4 splitStatements:false
+CREATE OR REPLACE FUNCTION get_concat(s1 VARCHAR, s2 VARCHAR)
+  RETURNS VARCHAR AS $$
+BEGIN
+  RETURN s1 || s2;
+END; $$
+LANGUAGE plpgsql;
+
+--changeset seregamorph:FEA-1-create-schema-5 splitStatements:false
+CREATE OR REPLACE PROCEDURE test_math(
+        val1    NUMERIC,
+        val2    NUMERIC,
+  INOUT out_sum NUMERIC,
+  INOUT out_mlt NUMERIC)
+AS $$
+BEGIN
+  out_sum := val1 + val2;
+  out_mlt := val1 * val2;
+END; $$
+LANGUAGE plpgsql;
@@ -1,5 +1,6 @@
 package org.morejdbc;
 
+import org.jetbrains.annotations.Nullable;
 import org.springframework.util.Assert;
 
 import java.sql.CallableStatement;
@@ -14,28 +15,41 @@ abstract class AbstractOut<T> {
 
     boolean beforeExecuted;
     boolean afterExecuted;
+    /**
+     * Number of the cursor rows of the value, -1 if unknown or not a cursor.
+     */
+    long rowCount = -1;
 
     AbstractOut(SqlType<T> type) {
         this.type = requireNonNull(type, "type");
+        if (!type.isReadable()) {
+            throw new IllegalStateException("Type " + type + " cannot be used as OUT");
+        }
     }
 
     void beforeExecute(CallableStatement cs, int idx) throws SQLException {
         Assert.state(!beforeExecuted, "already beforeExecute");
         Assert.state(!afterExecuted, "value already set");
-        cs.registerOutParameter(idx, type.getSqlType());
+        type.registerOutParameter(cs, idx);
         beforeExecuted = true;
     }
 
-    void afterExecute(CallableStatement cs, int idx) throws SQLException {
+    void afterExecute(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
         Assert.state(beforeExecuted, "not initialized");
         Assert.state(!afterExecuted, "value already set");
-        T value = type.getValueOrNull(cs, idx);
-        set(value);
+        extract(cs, idx, handle);
         afterExecuted = true;
     }
 
+    void extract(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
+        T value = type.getValueOrNull(cs, idx, handle);
+        rowCount = type.getRowCount(value);
+        set(value);
+    }
+
     void afterExecute(T value) {
         Assert.state(!afterExecuted, "value already set");
+        rowCount = type.getRowCount(value);
         set(value);
         afterExecuted = true;
     }
@@ -0,0 +1,121 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Common implementation of the database-specific array (collection) types.
+ * The whole collection is bound as one parameter.
+ *
+ * @see OracleSqlTypes
+ * @see PostgresSqlTypes
+ */
+final class ArrayTypes {
+
+    /**
+     * Creates the {@link Array} of the connection from the elements.
+     */
+    interface ArrayFactory {
+        Array createArray(Connection conn, Object elements) throws SQLException;
+    }
+
+    /**
+     * @param typeName     if not null, the out parameter is registered with the type name
+     * @param toElements   converts the value to the elements accepted by the array factory
+     * @param fromElements converts the elements of {@link Array#getArray()} to the value
+     */
+    static <T> SqlType<T> array(String printName, @Nullable String typeName, ArrayFactory arrayFactory,
+                                Function<T, Object> toElements, Function<Object[], T> fromElements) {
+        requireNonNull(arrayFactory, "arrayFactory");
+        SqlType.ResourceSetter<T> setter = (cs, idx, sqlType, value) -> {
+            if (value == null) {
+                if (typeName != null) {
+                    cs.setNull(idx, sqlType, typeName);
+                } else {
+                    cs.setNull(idx, sqlType);
+                }
+                return null;
+            }
+            // the temporary collection of the connection is freed after the execution
+            Array array = arrayFactory.createArray(cs.getConnection(), toElements.apply(value));
+            try {
+                cs.setArray(idx, array);
+            } catch (SQLException | RuntimeException e) {
+                array.free();
+                throw e;
+            }
+            return array::free;
+        };
+        SqlType.CallableStatementExtractor<T> extractor = (cs, idx) -> {
+            Array array = cs.getArray(idx);
+            if (array == null) {
+                return null;
+            }
+            try {
+                return fromElements.apply((Object[]) array.getArray());
+            } finally {
+                array.free();
+            }
+        };
+        return SqlType.ofResource(printName, Types.ARRAY, typeName, setter, extractor);
+    }
+
+    static Long[] toLongArray(List<Long> list) {
+        return list.toArray(new Long[0]);
+    }
+
+    static Long[] toLongArray(long[] array) {
+        Long[] elements = new Long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            elements[i] = array[i];
+        }
+        return elements;
+    }
+
+    static String[] toStringArray(List<String> list) {
+        return list.toArray(new String[0]);
+    }
+
+    /**
+     * The numeric elements can be {@link java.math.BigDecimal} (Oracle) or {@link Long} (Postgres int8).
+     */
+    static List<Long> longList(Object[] elements) {
+        List<Long> list = new ArrayList<>(elements.length);
+        for (Object element : elements) {
+            list.add(element == null ? null : ((Number) element).longValue());
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    static long[] longArray(Object[] elements) {
+        long[] array = new long[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] == null) {
+                throw new IllegalStateException("Array element " + (i + 1) + " is null, use List<Long> type");
+            }
+            array[i] = ((Number) elements[i]).longValue();
+        }
+        return array;
+    }
+
+    static List<String> stringList(Object[] elements) {
+        List<String> list = new ArrayList<>(elements.length);
+        for (Object element : elements) {
+            list.add((String) element);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private ArrayTypes() {
+    }
+}
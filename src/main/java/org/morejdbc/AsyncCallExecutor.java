@@ -0,0 +1,159 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes the calls asynchronously, each call on its own connection of the data source.
+ * <p>
+ * At most {@code concurrency} calls are executed at the same time, usually it should not exceed
+ * the connection pool size. When the limit is reached {@link #execute} blocks the caller until
+ * one of the running calls completes.
+ * <p>
+ * Usage example:
+ * <pre>
+ * CompletableFuture&lt;Integer&gt; sum = async.execute(call("get_sum", INTEGER).in("val1", 1).in("val2", 2));
+ * CompletableFuture&lt;String&gt; name = async.execute(call("get_name", VARCHAR).in("id", id));
+ * CompletableFuture.allOf(sum, name).join();
+ * </pre>
+ * The calls are executed out of the transaction of the calling thread.
+ * The call is skipped if its future is cancelled before the execution starts.
+ */
+public class AsyncCallExecutor implements AutoCloseable {
+
+    private static final Log logger = LogFactory.getLog(AsyncCallExecutor.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final int concurrency;
+    /**
+     * The executor created by {@link #create}, shutdown on close.
+     */
+    @Nullable
+    private final ExecutorService ownExecutor;
+
+    private AsyncCallExecutor(DataSource dataSource, Executor executor, int concurrency,
+                              @Nullable ExecutorService ownExecutor) {
+        Assert.isTrue(concurrency > 0, "concurrency should be positive");
+        this.jdbcTemplate = new JdbcTemplate(requireNonNull(dataSource, "dataSource"));
+        this.executor = requireNonNull(executor, "executor");
+        this.permits = new Semaphore(concurrency);
+        this.concurrency = concurrency;
+        this.ownExecutor = ownExecutor;
+    }
+
+    /**
+     * @param executor    executes the calls, is not shutdown on close
+     * @param concurrency max number of calls executed at the same time
+     */
+    public AsyncCallExecutor(DataSource dataSource, Executor executor, int concurrency) {
+        this(dataSource, executor, concurrency, null);
+    }
+
+    /**
+     * Creates the executor which uses virtual threads if the JVM supports them (JDK 21+),
+     * otherwise the fixed thread pool of {@code concurrency} daemon threads.
+     * The threads are shutdown on close.
+     */
+    public static AsyncCallExecutor create(DataSource dataSource, int concurrency) {
+        Assert.isTrue(concurrency > 0, "concurrency should be positive");
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(concurrency, r -> {
+                Thread thread = new Thread(r, "morejdbc-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return new AsyncCallExecutor(dataSource, executor, concurrency, executor);
+    }
+
+    @Nullable
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.debug("Virtual threads are not available, fixed thread pool is used");
+            return null;
+        }
+    }
+
+    /**
+     * Submits the call, blocks while {@code concurrency} calls are running.
+     * The future completes with the result of the call or with the translated {@link
+     * org.springframework.dao.DataAccessException}.
+     */
+    public <T> CompletableFuture<T> execute(ConnectionCallback<T> call) {
+        requireNonNull(call, "call");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!future.isDone()) {
+                        future.complete(jdbcTemplate.execute(call));
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the number of calls which are submitted and not completed yet
+     */
+    public int getActiveCount() {
+        return concurrency - permits.availablePermits();
+    }
+
+    /**
+     * Shutdowns the executor created by {@link #create}, the submitted calls are completed.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncCallExecutor{concurrency=" + concurrency + ", active=" + getActiveCount() + "}";
+    }
+}
@@ -0,0 +1,46 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resources created by binding of IN values (e.g. {@link java.sql.Array}), released after the execution.
+ * Not thread-safe.
+ */
+final class BoundResources {
+
+    private static final Log logger = LogFactory.getLog(BoundResources.class);
+
+    @Nullable
+    private List<AutoCloseable> resources;
+
+    void add(@Nullable AutoCloseable resource) {
+        if (resource != null) {
+            if (resources == null) {
+                resources = new ArrayList<>();
+            }
+            resources.add(resource);
+        }
+    }
+
+    /**
+     * Releases the added resources, the failures are logged.
+     */
+    void release() {
+        if (resources == null) {
+            return;
+        }
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.debug("Failed to release " + resource, e);
+            }
+        }
+        resources = null;
+    }
+}
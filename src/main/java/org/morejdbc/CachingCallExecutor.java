@@ -0,0 +1,242 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes the idempotent function calls with the cache of the results. The cache key is the function name,
+ * the return type and the IN values of {@link NamedJdbcCall}, the calls with OUT parameters,
+ * {@link SQLExceptionHandler}, lazy cursor streams, cursor or LOB callbacks are not supported. The cursor types
+ * are compared by identity, so the calls returning a cursor are cached per type instance.
+ * <p>
+ * The entries expire after the ttl, the least recently used entries are evicted when the total weight
+ * exceeds the max weight. The concurrent calls with the same key wait for the single database call
+ * (single-flight), the failed calls are not cached.
+ * <p>
+ * Usage example:
+ * <pre>
+ * private final CachingCallExecutor rates = new CachingCallExecutor(jdbcTemplate, 1, TimeUnit.MINUTES, 10_000);
+ * ...
+ * BigDecimal rate = rates.execute(call("get_rate", DECIMAL).in("currency", "EUR"));
+ * </pre>
+ * Note, that the values of array parameters (e.g. {@code byte[]}) are compared by reference.
+ */
+public class CachingCallExecutor {
+
+    private final JdbcOperations jdbcOperations;
+    private final long ttlNanos;
+    private final long maxWeight;
+    private Weigher weigher = value -> 1;
+
+    /**
+     * Access-ordered, guarded by itself.
+     */
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight the max total weight of the cached results, the number of entries by default
+     */
+    public CachingCallExecutor(JdbcOperations jdbcOperations, long ttl, TimeUnit unit, long maxWeight) {
+        Assert.isTrue(ttl > 0, "ttl should be positive");
+        Assert.isTrue(maxWeight > 0, "maxWeight should be positive");
+        this.jdbcOperations = requireNonNull(jdbcOperations, "jdbcOperations");
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * The weight of the result, e.g. the size of the list. Should be set before the executor is used.
+     */
+    public CachingCallExecutor weigher(Weigher weigher) {
+        this.weigher = requireNonNull(weigher, "weigher");
+        return this;
+    }
+
+    /**
+     * Returns the cached result or executes the call. The call object cannot be reused after.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(NamedJdbcCall<T> call) {
+        Object key = call.getCacheKey();
+        Entry entry;
+        boolean load = false;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.isExpired(now)) {
+                if (entry != null) {
+                    removeEntry(key, entry);
+                }
+                entry = new Entry();
+                entries.put(key, entry);
+                load = true;
+            }
+        }
+        if (load) {
+            misses.increment();
+            return (T) load(key, entry, call);
+        }
+        hits.increment();
+        return (T) join(entry.future);
+    }
+
+    @Nullable
+    private <T> Object load(Object key, Entry entry, NamedJdbcCall<T> call) {
+        T value;
+        long entryWeight;
+        try {
+            value = jdbcOperations.execute(call);
+            entryWeight = weigher.weigh(value);
+            Assert.state(entryWeight >= 0, "weight should not be negative");
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (entries) {
+            entry.expiresAt = System.nanoTime() + ttlNanos;
+            entry.weight = entryWeight;
+            if (entries.get(key) == entry) {
+                weight += entryWeight;
+                evict();
+            }
+        }
+        entry.future.complete(value);
+        return value;
+    }
+
+    /**
+     * Evicts the least recently used loaded entries, the entries being loaded are skipped.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.future.isDone()) {
+                it.remove();
+                weight -= entry.weight;
+                evictions.increment();
+            }
+        }
+    }
+
+    private void removeEntry(Object key, Entry entry) {
+        entries.remove(key);
+        weight -= entry.weight;
+    }
+
+    @Nullable
+    static Object join(CompletableFuture<?> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return the number of entries including the expired and being loaded ones
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return the number of calls with the cached or being loaded result
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of calls executed in the database
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingCallExecutor{size=" + size() + ", weight=" + getWeight() + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    @FunctionalInterface
+    public interface Weigher {
+        long weigh(@Nullable Object value);
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        /**
+         * Set after the load, guarded by the entries lock.
+         */
+        private long expiresAt = Long.MAX_VALUE;
+        private long weight;
+
+        boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt > 0;
+        }
+    }
+}
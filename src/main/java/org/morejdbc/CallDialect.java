@@ -0,0 +1,65 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates the database-specific sql of the call with named parameters.
+ *
+ * @see CallDialects
+ * @see NamedJdbcCall#dialect(CallDialect)
+ */
+public interface CallDialect {
+
+    /**
+     * @param conn           the connection of the call, can be used to read the metadata
+     * @param name           the procedure or function name
+     * @param function       true for functions, the result is the first parameter of the sql
+     * @param parameterNames the names of the parameters in the order of binding
+     */
+    CallSql getCallSql(Connection conn, String name, boolean function, String[] parameterNames) throws SQLException;
+
+    /**
+     * The sql of the call and the order of the parameters in the sql.
+     */
+    final class CallSql {
+
+        private final String sql;
+        @Nullable
+        private final int[] order;
+
+        /**
+         * @param order the indexes of the bound parameters in the order of the sql placeholders,
+         *              null if the order is the same
+         */
+        public CallSql(String sql, @Nullable int[] order) {
+            this.sql = requireNonNull(sql, "sql");
+            this.order = order;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        <P> P[] reorder(P[] parameters) {
+            if (order == null) {
+                return parameters;
+            }
+            P[] ordered = Arrays.copyOf(parameters, order.length);
+            for (int i = 0; i < order.length; i++) {
+                ordered[i] = parameters[order[i]];
+            }
+            return ordered;
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+}
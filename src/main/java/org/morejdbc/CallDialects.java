@@ -0,0 +1,219 @@
+package org.morejdbc;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementations of {@link CallDialect}.
+ */
+public final class CallDialects {
+
+    /**
+     * Named parameters {@code {call proc(name => ?)}}, supported by Oracle and DB2. The default dialect.
+     */
+    public static final CallDialect ORACLE = (conn, name, function, parameterNames) ->
+            new CallDialect.CallSql(NamedJdbcCall.getSql(name, function, parameterNames), null);
+
+    /**
+     * Named parameters {@code name => ?} (PostgreSQL 9.5+). The functions are called via JDBC escape,
+     * which the driver translates to {@code select * from fn(...)}, the procedures (PostgreSQL 11+)
+     * are called with native {@code call proc(...)}.
+     */
+    public static final CallDialect POSTGRES = (conn, name, function, parameterNames) -> {
+        if (function) {
+            return new CallDialect.CallSql(NamedJdbcCall.getSql(name, true, parameterNames), null);
+        }
+        StringBuilder sql = new StringBuilder("call ");
+        NamedJdbcCall.appendCall(sql, name, parameterNames);
+        return new CallDialect.CallSql(sql.toString(), null);
+    };
+
+    /**
+     * Positional parameters (MySQL, MariaDB, H2), see {@link PositionalCallDialect}.
+     * The declared parameters are cached for 5 minutes.
+     */
+    public static final PositionalCallDialect MYSQL = new PositionalCallDialect(5, TimeUnit.MINUTES);
+
+    private static final Map<DataSource, CallDialect> dataSourceDialects =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Detects the dialect by the database product name, the result is cached per data source.
+     * Usually the dialect is detected once for the calls of the data source:
+     * <pre>
+     * CallDialect dialect = CallDialects.detect(dataSource);
+     * ...
+     * jdbc.execute(call("get_concat", VARCHAR).dialect(dialect).in("s1", "abc").in("s2", "def"));
+     * </pre>
+     */
+    public static CallDialect detect(DataSource dataSource) {
+        requireNonNull(dataSource, "dataSource");
+        CallDialect dialect = dataSourceDialects.get(dataSource);
+        if (dialect == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                dialect = byProductName(productName);
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Failed to detect the dialect of " + dataSource, e);
+            }
+            dataSourceDialects.put(dataSource, dialect);
+        }
+        return dialect;
+    }
+
+    /**
+     * Detects the dialect by the database product name of the connection, not cached.
+     */
+    public static CallDialect detect(Connection conn) throws SQLException {
+        return byProductName(conn.getMetaData().getDatabaseProductName());
+    }
+
+    private static CallDialect byProductName(String productName) {
+        String name = JdbcUtils.commonDatabaseName(productName);
+        if ("PostgreSQL".equals(name)) {
+            return POSTGRES;
+        }
+        if ("MySQL".equals(name) || "MariaDB".equals(name) || "H2".equals(name)) {
+            return MYSQL;
+        }
+        return ORACLE;
+    }
+
+    /**
+     * Positional parameters (MySQL, MariaDB, H2). The parameters are reordered by the declared order,
+     * which is read from {@link DatabaseMetaData#getProcedureColumns} and cached per database url
+     * and procedure for the ttl. All the declared parameters should be bound.
+     * <p>
+     * The cache should be invalidated after the parameters of a procedure are changed, otherwise
+     * the values can be bound to the wrong positions until the ttl expires.
+     */
+    public static final class PositionalCallDialect implements CallDialect {
+
+        private final long ttlNanos;
+        private final Map<String, DeclaredNames> declaredNames = new ConcurrentHashMap<>();
+
+        public PositionalCallDialect(long ttl, TimeUnit unit) {
+            Assert.isTrue(ttl > 0, "ttl should be positive");
+            this.ttlNanos = unit.toNanos(ttl);
+        }
+
+        /**
+         * Evict all the declared parameters, they are read again on the next call.
+         */
+        public void invalidate() {
+            declaredNames.clear();
+        }
+
+        @Override
+        public CallSql getCallSql(Connection conn, String name, boolean function,
+                                  String[] parameterNames) throws SQLException {
+            List<String> declared = getDeclaredNames(conn, name);
+            int[] order = new int[declared.size()];
+            boolean[] bound = new boolean[parameterNames.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = indexOf(parameterNames, declared.get(i));
+                if (order[i] < 0) {
+                    throw new IllegalArgumentException("Parameter " + declared.get(i) + " of " + name
+                            + " is not bound");
+                }
+                bound[order[i]] = true;
+            }
+            for (int i = 0; i < bound.length; i++) {
+                if (!bound[i]) {
+                    throw new IllegalArgumentException("Parameter " + parameterNames[i] + " is not declared by "
+                            + name + ", declared: " + declared);
+                }
+            }
+
+            StringBuilder sql = new StringBuilder(function ? "{? = call " : "{call ")
+                    .append(name).append("(");
+            for (int i = 0; i < order.length; i++) {
+                sql.append(i > 0 ? ", ?" : "?");
+            }
+            sql.append(")}");
+            return new CallSql(sql.toString(), order);
+        }
+
+        private static int indexOf(String[] parameterNames, String name) {
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (parameterNames[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private List<String> getDeclaredNames(Connection conn, String name) throws SQLException {
+            String catalog = conn.getCatalog();
+            String procedureName = name;
+            int dot = name.indexOf('.');
+            if (dot > 0) {
+                catalog = name.substring(0, dot);
+                procedureName = name.substring(dot + 1);
+            }
+            DatabaseMetaData metaData = conn.getMetaData();
+            String key = metaData.getURL() + " " + (catalog + "." + procedureName).toLowerCase(Locale.ROOT);
+            DeclaredNames cached = declaredNames.get(key);
+            long now = System.nanoTime();
+            if (cached != null && now - cached.loadedAt <= ttlNanos) {
+                return cached.names;
+            }
+            List<String> names = readDeclaredNames(metaData, catalog, procedureName);
+            if (names.isEmpty()) {
+                // the procedure may be unknown yet, do not cache to see it after creation
+                declaredNames.remove(key);
+            } else {
+                declaredNames.put(key, new DeclaredNames(now, names));
+            }
+            return names;
+        }
+
+        private static List<String> readDeclaredNames(DatabaseMetaData metaData, String catalog,
+                                                      String procedureName) throws SQLException {
+            List<String> names = new ArrayList<>();
+            try (ResultSet rs = metaData.getProcedureColumns(catalog, null, procedureName, "%")) {
+                while (rs.next()) {
+                    int columnType = rs.getInt("COLUMN_TYPE");
+                    if (columnType == DatabaseMetaData.procedureColumnIn
+                            || columnType == DatabaseMetaData.procedureColumnInOut
+                            || columnType == DatabaseMetaData.procedureColumnOut) {
+                        names.add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+            return Collections.unmodifiableList(names);
+        }
+    }
+
+    private static final class DeclaredNames {
+
+        private final long loadedAt;
+        private final List<String> names;
+
+        private DeclaredNames(long loadedAt, List<String> names) {
+            this.loadedAt = loadedAt;
+            this.names = names;
+        }
+    }
+
+    private CallDialects() {
+    }
+}
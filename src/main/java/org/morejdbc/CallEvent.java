@@ -0,0 +1,195 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Execution of the call reported to {@link CallListener}. The phases which were not reached have zero duration.
+ */
+public final class CallEvent {
+
+    @Nullable
+    private final String name;
+    private final String sql;
+    private final int parameterCount;
+    private final long prepareNanos;
+    private final long bindNanos;
+    private final long executeNanos;
+    private final long extractNanos;
+    private final long cursorRows;
+    @Nullable
+    private final Throwable error;
+    /**
+     * The parameters without the function result, the first has index {@code parameterOffset + 1}.
+     */
+    private final InOut<?>[] parameters;
+    private final int parameterOffset;
+
+    CallEvent(@Nullable String name, String sql, InOut<?>[] parameters, int parameterOffset,
+              long prepareNanos, long bindNanos, long executeNanos, long extractNanos,
+              long cursorRows, @Nullable Throwable error) {
+        this.name = name;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.parameterOffset = parameterOffset;
+        this.parameterCount = parameters.length + parameterOffset;
+        this.prepareNanos = prepareNanos;
+        this.bindNanos = bindNanos;
+        this.executeNanos = executeNanos;
+        this.extractNanos = extractNanos;
+        this.cursorRows = cursorRows;
+        this.error = error;
+    }
+
+    /**
+     * @return the procedure or function name, null for {@link JdbcCall}
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the number of parameters including the function result
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * @return the bind parameters (without the function result), created on each invocation
+     */
+    public List<Parameter> getParameters() {
+        List<Parameter> list = new ArrayList<>(parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            list.add(new Parameter(i + parameterOffset + 1, parameters[i]));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return the duration of prepareCall (or the lookup in {@link CallableStatementCache})
+     */
+    public long getPrepareNanos() {
+        return prepareNanos;
+    }
+
+    /**
+     * @return the duration of binding IN and registering OUT parameters
+     */
+    public long getBindNanos() {
+        return bindNanos;
+    }
+
+    /**
+     * @return the duration of {@link java.sql.CallableStatement#execute()}
+     */
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * @return the duration of OUT parameters extraction including the cursors reading and mapping
+     */
+    public long getExtractNanos() {
+        return extractNanos;
+    }
+
+    public long getTotalNanos() {
+        return prepareNanos + bindNanos + executeNanos + extractNanos;
+    }
+
+    /**
+     * @return the total number of rows of the cursor OUT parameters, -1 if unknown
+     * (no cursors or e.g. {@link OracleSqlTypes#cursorExtractor})
+     */
+    public long getCursorRows() {
+        return cursorRows;
+    }
+
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Bind parameter of the call.
+     */
+    public static final class Parameter {
+
+        private final int index;
+        private final InOut<?> parameter;
+
+        private Parameter(int index, InOut<?> parameter) {
+            this.index = index;
+            this.parameter = parameter;
+        }
+
+        /**
+         * @return the index of the statement parameter starting from 1
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the parameter name of {@link NamedJdbcCall}, otherwise null
+         */
+        @Nullable
+        public String getName() {
+            return parameter instanceof NamedJdbcCall.NamedParameter
+                    ? ((NamedJdbcCall.NamedParameter<?>) parameter).getName() : null;
+        }
+
+        public boolean isIn() {
+            return parameter.in != null;
+        }
+
+        public boolean isOut() {
+            return parameter.out != null;
+        }
+
+        public String getTypeName() {
+            return parameter.in != null ? parameter.in.getType().getPrintName() : parameter.out.type.getPrintName();
+        }
+
+        /**
+         * @return the IN value, null for OUT parameters
+         */
+        @Nullable
+        public Object getValue() {
+            return parameter.in != null ? parameter.in.getValue() : null;
+        }
+
+        @Override
+        public String toString() {
+            String name = getName();
+            return (name != null ? name : String.valueOf(index)) + " " + parameter;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CallEvent{" +
+                (name != null ? "name=" + name : "sql=" + sql) +
+                ", parameters=" + parameterCount +
+                ", prepare=" + prepareNanos / 1000 + "us" +
+                ", bind=" + bindNanos / 1000 + "us" +
+                ", execute=" + executeNanos / 1000 + "us" +
+                ", extract=" + extractNanos / 1000 + "us" +
+                (cursorRows >= 0 ? ", cursorRows=" + cursorRows : "") +
+                (error != null ? ", error=" + error.getClass().getName() : "") +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package org.morejdbc;
+
+/**
+ * Receives the timings of the executed calls, e.g. to publish the metrics.
+ * Is invoked in the calling thread after each execution including the failed ones,
+ * the exceptions of the listener are logged and ignored.
+ *
+ * @see JdbcCall#listener(CallListener)
+ * @see NamedJdbcCall#listener(CallListener)
+ * @see NamedCallTemplate#withListener(CallListener)
+ */
+@FunctionalInterface
+public interface CallListener {
+
+    void onCall(CallEvent event);
+}
@@ -0,0 +1,67 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable optional execution settings of the calls.
+ */
+final class CallOptions {
+
+    static final CallOptions DEFAULT = new CallOptions(null, null, null, null, null);
+
+    @Nullable
+    final CallableStatementCache statementCache;
+    /**
+     * If not null, the cursor out parameters are extracted concurrently.
+     */
+    @Nullable
+    final Executor cursorExecutor;
+    @Nullable
+    final CallListener listener;
+    /**
+     * If null, the sql is generated with Oracle syntax once, see {@link CallDialects#ORACLE}.
+     */
+    @Nullable
+    final CallDialect dialect;
+    @Nullable
+    final ProcedureMetadataCache metadataCache;
+
+    private CallOptions(@Nullable CallableStatementCache statementCache, @Nullable Executor cursorExecutor,
+                        @Nullable CallListener listener, @Nullable CallDialect dialect,
+                        @Nullable ProcedureMetadataCache metadataCache) {
+        this.statementCache = statementCache;
+        this.cursorExecutor = cursorExecutor;
+        this.listener = listener;
+        this.dialect = dialect;
+        this.metadataCache = metadataCache;
+    }
+
+    CallOptions withStatementCache(CallableStatementCache statementCache) {
+        return new CallOptions(requireNonNull(statementCache, "statementCache"), cursorExecutor, listener,
+                dialect, metadataCache);
+    }
+
+    CallOptions withCursorExecutor(Executor cursorExecutor) {
+        return new CallOptions(statementCache, requireNonNull(cursorExecutor, "cursorExecutor"), listener,
+                dialect, metadataCache);
+    }
+
+    CallOptions withListener(CallListener listener) {
+        return new CallOptions(statementCache, cursorExecutor, requireNonNull(listener, "listener"),
+                dialect, metadataCache);
+    }
+
+    CallOptions withDialect(CallDialect dialect) {
+        return new CallOptions(statementCache, cursorExecutor, listener, requireNonNull(dialect, "dialect"),
+                metadataCache);
+    }
+
+    CallOptions withMetadataCache(ProcedureMetadataCache metadataCache) {
+        return new CallOptions(statementCache, cursorExecutor, listener, dialect,
+                requireNonNull(metadataCache, "metadataCache"));
+    }
+}
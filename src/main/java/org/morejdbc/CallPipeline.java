@@ -0,0 +1,193 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes several calls in order on one connection.
+ * Note, that the object cannot be reused again.
+ * <p>
+ * Usage example:
+ * <pre>
+ * Out&lt;Integer&gt; sum = Out.of(INTEGER);
+ * AtomicReference&lt;String&gt; name = new AtomicReference&lt;&gt;();
+ *
+ * jdbc.execute(pipeline()
+ *         .add(call("test_math").in("val1", 1).in("val2", 2).out("out_sum", sum))
+ *         .add(call("get_name", VARCHAR).in("id", id), name::set)
+ *         .merge());
+ * </pre>
+ * With {@link #merge()} the consecutive {@link NamedJdbcCall}s are executed on Oracle as one anonymous
+ * PL/SQL block in one round trip, the out values and function results are set as usual.
+ * On the other databases and for the calls with {@link SQLExceptionHandler}, parallel cursors or own
+ * {@link CallListener} the calls are executed one by one.
+ */
+public class CallPipeline implements ConnectionCallback<Void>, SqlProvider {
+
+    private static final Log logger = LogFactory.getLog(CallPipeline.class);
+
+    private List<Step<?>> steps = new ArrayList<>();
+    private boolean merge;
+    private CallOptions options = CallOptions.DEFAULT;
+
+    private String sql;
+
+    private CallPipeline() {
+    }
+
+    public static CallPipeline pipeline() {
+        return new CallPipeline();
+    }
+
+    public CallPipeline add(ConnectionCallback<?> call) {
+        return addImpl(call, null);
+    }
+
+    /**
+     * @param resultConsumer receives the result of the call, e.g. the function result of {@link NamedJdbcCall}
+     */
+    public <T> CallPipeline add(ConnectionCallback<T> call, Consumer<? super T> resultConsumer) {
+        return addImpl(call, requireNonNull(resultConsumer, "resultConsumer"));
+    }
+
+    private <T> CallPipeline addImpl(ConnectionCallback<T> call, @Nullable Consumer<? super T> resultConsumer) {
+        if (this.steps == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        steps.add(new Step<>(requireNonNull(call, "call"), resultConsumer));
+        return this;
+    }
+
+    /**
+     * Execute the consecutive {@link NamedJdbcCall}s as one PL/SQL block if the database is Oracle.
+     */
+    public CallPipeline merge() {
+        this.merge = true;
+        return this;
+    }
+
+    /**
+     * Reuse prepared statements of merged blocks, see {@link CallableStatementCache}.
+     */
+    public CallPipeline statementCache(CallableStatementCache statementCache) {
+        this.options = options.withStatementCache(statementCache);
+        return this;
+    }
+
+    /**
+     * Report the timings of merged blocks to the listener.
+     */
+    public CallPipeline listener(CallListener listener) {
+        this.options = options.withListener(listener);
+        return this;
+    }
+
+    @Override
+    public Void doInConnection(Connection conn) throws SQLException, DataAccessException {
+        List<Step<?>> steps = getSteps();
+        boolean merge = this.merge && isOracle(conn);
+        int i = 0;
+        while (i < steps.size()) {
+            int end = i;
+            if (merge) {
+                while (end < steps.size() && steps.get(end).isMergeable()) {
+                    end++;
+                }
+            }
+            if (end - i > 1) {
+                executeBlock(conn, steps.subList(i, end));
+                i = end;
+            } else {
+                steps.get(i).execute(conn);
+                i++;
+            }
+        }
+        return null;
+    }
+
+    private void executeBlock(Connection conn, List<Step<?>> steps) throws SQLException {
+        StringBuilder block = new StringBuilder("BEGIN\n");
+        List<InOut<?>> parameters = new ArrayList<>();
+        for (Step<?> step : steps) {
+            step.appendTo(block, parameters);
+        }
+        block.append("END;");
+        this.sql = block.toString();
+        logger.trace("sql: " + sql);
+
+        NamedJdbcCall.execute(conn, null, sql, null, parameters.toArray(new InOut<?>[0]), null, options, null);
+        for (Step<?> step : steps) {
+            step.complete();
+        }
+    }
+
+    private static boolean isOracle(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().startsWith("Oracle");
+    }
+
+    private List<Step<?>> getSteps() {
+        if (this.steps == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        List<Step<?>> steps = this.steps;
+        this.steps = null;
+        return steps;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    private final class Step<T> {
+
+        private final ConnectionCallback<T> call;
+        @Nullable
+        private final Consumer<? super T> resultConsumer;
+        @Nullable
+        private Out<T> result;
+
+        Step(ConnectionCallback<T> call, @Nullable Consumer<? super T> resultConsumer) {
+            this.call = call;
+            this.resultConsumer = resultConsumer;
+        }
+
+        boolean isMergeable() {
+            return call instanceof NamedJdbcCall && ((NamedJdbcCall<T>) call).isMergeable();
+        }
+
+        void execute(Connection conn) throws SQLException {
+            T value;
+            try {
+                value = call.doInConnection(conn);
+            } finally {
+                sql = call instanceof SqlProvider ? ((SqlProvider) call).getSql() : null;
+            }
+            if (resultConsumer != null) {
+                resultConsumer.accept(value);
+            }
+        }
+
+        void appendTo(StringBuilder block, List<InOut<?>> parameters) {
+            result = ((NamedJdbcCall<T>) call).appendTo(block, parameters);
+        }
+
+        void complete() {
+            if (resultConsumer != null) {
+                resultConsumer.accept(result != null ? result.get() : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Measures the phases of the call for {@link CallListener}, created only if the listener is set.
+ */
+final class CallTimer {
+
+    private static final Log logger = LogFactory.getLog(CallTimer.class);
+
+    private static final int PREPARE = 0;
+    private static final int BIND = 1;
+    private static final int EXECUTE = 2;
+    private static final int EXTRACT = 3;
+
+    private final long[] durations = new long[4];
+    private int phase = PREPARE;
+    private long last = System.nanoTime();
+    @Nullable
+    private Throwable error;
+
+    /**
+     * Completes the current phase and starts the next one.
+     */
+    void next() {
+        long now = System.nanoTime();
+        durations[phase++] = now - last;
+        last = now;
+    }
+
+    /**
+     * Completes the current phase with the error.
+     */
+    void failed(Throwable error) {
+        if (this.error == null && phase < durations.length) {
+            durations[phase] = System.nanoTime() - last;
+            this.error = error;
+        }
+    }
+
+    void report(CallListener listener, @Nullable String name, String sql, @Nullable AbstractOut<?> result,
+                InOut<?>[] parameters) {
+        long cursorRows = result != null ? result.rowCount : -1;
+        for (InOut<?> parameter : parameters) {
+            if (parameter.out != null && parameter.out.rowCount >= 0) {
+                cursorRows = Math.max(cursorRows, 0) + parameter.out.rowCount;
+            }
+        }
+        CallEvent event = new CallEvent(name, sql, parameters, result != null ? 1 : 0,
+                durations[PREPARE], durations[BIND], durations[EXECUTE], durations[EXTRACT], cursorRows, error);
+        try {
+            listener.onCall(event);
+        } catch (RuntimeException e) {
+            logger.warn("CallListener failed on " + event, e);
+        }
+    }
+}
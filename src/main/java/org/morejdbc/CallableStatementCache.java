@@ -0,0 +1,252 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.Assert;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional LRU cache of prepared {@link CallableStatement}s per physical connection, keyed by the call sql.
+ * Useful for drivers without implicit statement caching of callable statements (e.g. MySQL, PostgreSQL).
+ * <p>
+ * The statement is checked out of the cache for the time of the call and returned back after it,
+ * the parameters are cleared with {@link CallableStatement#clearParameters()}.
+ * Statements evicted by size limit are closed. The statements of closed connections are dropped
+ * on the cache miss.
+ * <p>
+ * The statements are prepared on the physical connection unwrapped from the pool proxy, so they survive
+ * the return of the connection to the pool (which closes the statements created via the proxy).
+ * The statement tracking of the pool (e.g. leak detection) does not cover the cached statements.
+ * <p>
+ * Usage example:
+ * <pre>
+ * private final CallableStatementCache statementCache = new CallableStatementCache(64);
+ * ...
+ * jdbcTemplate.execute(call("test_math")
+ *         .statementCache(statementCache)
+ *         .in("val1", 1)
+ *         ...
+ * </pre>
+ * The instance is thread-safe and is intended to be shared.
+ */
+public class CallableStatementCache {
+
+    private static final Log logger = LogFactory.getLog(CallableStatementCache.class);
+
+    private final int maxSize;
+
+    private final Map<Connection, Statements> connections = new IdentityHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize max number of cached statements per physical connection
+     */
+    public CallableStatementCache(int maxSize) {
+        Assert.isTrue(maxSize > 0, "maxSize should be positive");
+        this.maxSize = maxSize;
+    }
+
+    static CallableStatement prepareCall(@Nullable CallableStatementCache cache, Connection conn, String sql)
+            throws SQLException {
+        return cache == null ? conn.prepareCall(sql) : cache.checkout(conn, sql);
+    }
+
+    /**
+     * Returns statement back to the cache or closes it.
+     *
+     * @param reusable false if the call failed, the statement is closed quietly in this case
+     */
+    static void release(@Nullable CallableStatementCache cache, Connection conn, String sql, CallableStatement cs,
+                        boolean reusable) throws SQLException {
+        if (!reusable) {
+            closeQuietly(cs);
+        } else if (cache == null) {
+            cs.close();
+        } else {
+            cache.checkin(conn, sql, cs);
+        }
+    }
+
+    CallableStatement checkout(Connection conn, String sql) throws SQLException {
+        Connection target = getTargetConnection(conn);
+        CallableStatement cs;
+        synchronized (this) {
+            Statements statements = connections.get(target);
+            cs = statements == null ? null : statements.remove(sql);
+        }
+        if (cs != null && !cs.isClosed()) {
+            hits.increment();
+            return cs;
+        }
+        misses.increment();
+        synchronized (this) {
+            purgeClosedConnections();
+        }
+        // prepared on the same connection as the key, the pool proxies close their statements on return
+        return target.prepareCall(sql);
+    }
+
+    void checkin(Connection conn, String sql, CallableStatement cs) throws SQLException {
+        if (cs.isClosed()) {
+            return;
+        }
+        try {
+            cs.clearParameters();
+        } catch (SQLException e) {
+            logger.debug("Failed to clear parameters, closing statement", e);
+            closeQuietly(cs);
+            return;
+        }
+        Connection target = getTargetConnection(conn);
+        CallableStatement replaced;
+        synchronized (this) {
+            Statements statements = connections.get(target);
+            if (statements == null) {
+                statements = new Statements();
+                connections.put(target, statements);
+            }
+            replaced = statements.put(sql, cs);
+        }
+        if (replaced != null && replaced != cs) {
+            // the same sql was executed concurrently (nested) on the same connection
+            closeQuietly(replaced);
+        }
+    }
+
+    /**
+     * Closes and removes all cached statements of the connection.
+     */
+    public void evict(Connection conn) {
+        Connection target = getTargetConnection(conn);
+        Statements statements;
+        synchronized (this) {
+            statements = connections.remove(target);
+        }
+        if (statements != null) {
+            for (CallableStatement cs : statements.values()) {
+                closeQuietly(cs);
+            }
+        }
+    }
+
+    /**
+     * Closes and removes all cached statements.
+     */
+    public void clear() {
+        Statements[] all;
+        synchronized (this) {
+            all = connections.values().toArray(new Statements[0]);
+            connections.clear();
+        }
+        for (Statements statements : all) {
+            for (CallableStatement cs : statements.values()) {
+                closeQuietly(cs);
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of cached statements of all connections.
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Statements statements : connections.values()) {
+            size += statements.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CallableStatementCache{" +
+                "maxSize=" + maxSize +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                '}';
+    }
+
+    private void purgeClosedConnections() {
+        for (Iterator<Map.Entry<Connection, Statements>> it = connections.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Connection, Statements> entry = it.next();
+            if (isClosed(entry.getKey())) {
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean isClosed(Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static Connection getTargetConnection(Connection conn) {
+        Connection target = DataSourceUtils.getTargetConnection(conn);
+        try {
+            // physical connection of the pool proxies (e.g. HikariCP)
+            if (target.isWrapperFor(Connection.class)) {
+                return target.unwrap(Connection.class);
+            }
+        } catch (SQLException e) {
+            logger.trace("Failed to unwrap connection", e);
+        }
+        return target;
+    }
+
+    private static void closeQuietly(CallableStatement cs) {
+        try {
+            cs.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close statement", e);
+        }
+    }
+
+    private class Statements extends LinkedHashMap<String, CallableStatement> {
+
+        Statements() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CallableStatement> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.morejdbc.NamedJdbcCall.NamedParameter;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes the concurrent identical calls once (single-flight). The calls are identical if they are equal
+ * by {@link NamedJdbcCall#equals(Object)}: the same name, return type, IN values and types of OUT parameters.
+ * The first call is executed, the calls which arrive while it is in flight wait for it and receive
+ * its result and the values of its OUT parameters, or its exception. Nothing is kept after the execution,
+ * see {@link CachingCallExecutor} to cache the results.
+ * <p>
+ * The cursor types are compared by identity (the mappers cannot be compared), so the calls with the cursors
+ * are coalesced only if they use the same type instance, e.g. a constant:
+ * <pre>
+ * private static final SqlType&lt;List&lt;Rate&gt;&gt; RATES = OracleSqlTypes.cursor(RATE_MAPPER);
+ * private final CoalescingCallExecutor coalescing = new CoalescingCallExecutor(jdbcTemplate);
+ * ...
+ * Out&lt;List&lt;Rate&gt;&gt; rates = Out.of(RATES);
+ * coalescing.execute(call("get_rates").in("day", day).out("rates", rates));
+ * </pre>
+ * The executor is intended for the read-only calls: the waiters get the values read by the connection
+ * (and the transaction) of the first call. The waiters share the same value objects, e.g. the lists
+ * of the cursor rows, so the values should not be modified. The calls with {@link SQLExceptionHandler},
+ * lazy cursor streams, cursor or LOB callbacks (the callback of each caller should be called) are executed
+ * without coalescing.
+ */
+public class CoalescingCallExecutor {
+
+    private final JdbcOperations jdbcOperations;
+    private final ConcurrentMap<Object, CompletableFuture<Flight>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingCallExecutor(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = requireNonNull(jdbcOperations, "jdbcOperations");
+    }
+
+    /**
+     * Executes the call or waits for the identical call in flight. The call object cannot be reused after.
+     *
+     * @return the result of the function or null for the procedure
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(NamedJdbcCall<T> call) {
+        Object key = call.getCoalescingKey();
+        if (key == null) {
+            executions.increment();
+            return jdbcOperations.execute(call);
+        }
+        CompletableFuture<Flight> future = new CompletableFuture<>();
+        CompletableFuture<Flight> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            executions.increment();
+            return (T) lead(key, future, call);
+        }
+        coalesced.increment();
+        NamedParameter<?>[] parameters = call.getParameters();
+        Flight flight = (Flight) CachingCallExecutor.join(existing);
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].out != null) {
+                setValue(parameters[i].out, flight.outValues[i]);
+            }
+        }
+        return (T) flight.result;
+    }
+
+    @Nullable
+    private <T> Object lead(Object key, CompletableFuture<Flight> future, NamedJdbcCall<T> call) {
+        List<NamedParameter<?>> parameters = call.parameters;
+        ValueOut<?>[] outs = new ValueOut<?>[parameters.size()];
+        for (int i = 0; i < outs.length; i++) {
+            NamedParameter<?> parameter = parameters.get(i);
+            if (parameter.out != null) {
+                outs[i] = replaceOut(parameters, i, parameter);
+            }
+        }
+        T result;
+        try {
+            result = jdbcOperations.execute(call);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        Object[] outValues = new Object[outs.length];
+        for (int i = 0; i < outs.length; i++) {
+            if (outs[i] != null) {
+                outValues[i] = outs[i].value;
+            }
+        }
+        inFlight.remove(key, future);
+        future.complete(new Flight(result, outValues));
+        return result;
+    }
+
+    private static <V> ValueOut<V> replaceOut(List<NamedParameter<?>> parameters, int index,
+                                              NamedParameter<V> parameter) {
+        ValueOut<V> out = new ValueOut<>(parameter.out);
+        parameters.set(index, new NamedParameter<>(parameter.getName(), parameter.in, out));
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void setValue(AbstractOut<V> out, @Nullable Object value) {
+        out.afterExecute((V) value);
+    }
+
+    /**
+     * @return the number of the calls being executed
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return the number of calls executed in the database
+     */
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * @return the number of calls which received the result of the identical call in flight
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingCallExecutor{inFlight=" + getInFlightCount() + ", executions=" + getExecutionCount()
+                + ", coalesced=" + getCoalescedCount() + "}";
+    }
+
+    /**
+     * Keeps the value of the OUT parameter of the executed call and passes it to the original OUT.
+     */
+    private static final class ValueOut<V> extends AbstractOut<V> {
+
+        private final AbstractOut<V> target;
+        @Nullable
+        private V value;
+
+        ValueOut(AbstractOut<V> target) {
+            super(target.type);
+            this.target = target;
+        }
+
+        @Override
+        void set(V value) {
+            this.value = value;
+            target.afterExecute(value);
+        }
+
+        @Override
+        public String toString() {
+            return target.toString();
+        }
+    }
+
+    private static final class Flight {
+
+        @Nullable
+        private final Object result;
+        private final Object[] outValues;
+
+        Flight(@Nullable Object result, Object[] outValues) {
+            this.result = result;
+            this.outValues = outValues;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The column indexes of the {@link ResultSet} by label, built from {@link ResultSetMetaData} once.
+ * The labels are matched ignoring case, and ignoring underscores if there is no such label,
+ * so {@code first_name} and {@code firstName} both match {@code FIRST_NAME}.
+ * <p>
+ * The intended usage is to resolve the indexes once per result set and to read the rows by index,
+ * e.g. with the index-based getters of {@link DBUtils}:
+ * <pre>
+ * private static final RowMapper&lt;Item&gt; ITEM_MAPPER = ColumnIndex.rowMapper(columns -&gt; {
+ *     int id = columns.indexOf("id");
+ *     int price = columns.indexOf("price");
+ *     return (rs, rowNum) -&gt; new Item(rs.getLong(id), DBUtils.getDoubleOrNull(rs, price));
+ * });
+ * </pre>
+ */
+public final class ColumnIndex {
+
+    private final List<String> labels;
+    private final Map<String, Integer> byLabel = new HashMap<>();
+    private final Map<String, Integer> byNormalizedLabel = new HashMap<>();
+
+    private ColumnIndex(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<String> labels = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            String label = metaData.getColumnLabel(i);
+            labels.add(label);
+            // the first column wins like in ResultSet.findColumn
+            byLabel.putIfAbsent(label.toLowerCase(Locale.ROOT), i);
+            byNormalizedLabel.putIfAbsent(normalize(label), i);
+        }
+        this.labels = Collections.unmodifiableList(labels);
+    }
+
+    public static ColumnIndex of(ResultSetMetaData metaData) throws SQLException {
+        return new ColumnIndex(requireNonNull(metaData, "metaData"));
+    }
+
+    public static ColumnIndex of(ResultSet rs) throws SQLException {
+        return of(rs.getMetaData());
+    }
+
+    /**
+     * Creates the {@link RowMapper} which resolves the column indexes once per {@link ResultSet}
+     * and delegates to the mapper created by the factory for these indexes.
+     */
+    public static <T> RowMapper<T> rowMapper(RowMapperFactory<T> factory) {
+        return new IndexedRowMapper<>(requireNonNull(factory, "factory"));
+    }
+
+    /**
+     * @return 1-based index of the column
+     * @throws SQLException if the column is not found, like {@link ResultSet#findColumn(String)}
+     */
+    public int indexOf(String label) throws SQLException {
+        int index = findIndex(label);
+        if (index < 0) {
+            throw new SQLException("Column " + label + " is not found in " + labels);
+        }
+        return index;
+    }
+
+    /**
+     * @return 1-based index of the column or -1 if not found
+     */
+    public int findIndex(String label) {
+        Integer index = byLabel.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            index = byNormalizedLabel.get(normalize(label));
+        }
+        return index == null ? -1 : index;
+    }
+
+    public int getColumnCount() {
+        return labels.size();
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    private static String normalize(String label) {
+        return label.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnIndex" + labels;
+    }
+
+    @FunctionalInterface
+    public interface RowMapperFactory<T> {
+        /**
+         * @return the mapper which reads the columns of the result set by the resolved indexes
+         */
+        RowMapper<T> create(ColumnIndex columns) throws SQLException;
+    }
+
+    private static final class IndexedRowMapper<T> implements RowMapper<T> {
+
+        private final RowMapperFactory<T> factory;
+        /**
+         * The mapper of the last result set, usually the same ResultSet is mapped row by row.
+         */
+        @Nullable
+        private volatile Resolved<T> resolved;
+        /**
+         * The mappers of all the result sets not collected yet, e.g. mapped concurrently by the same
+         * static mapper, so the indexes are resolved once per ResultSet. Guarded by itself.
+         */
+        private final Map<ResultSet, RowMapper<T>> byResultSet = new WeakHashMap<>();
+
+        IndexedRowMapper(RowMapperFactory<T> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Resolved<T> resolved = this.resolved;
+            if (resolved == null || resolved.rs.get() != rs) {
+                resolved = new Resolved<>(rs, getMapper(rs));
+                this.resolved = resolved;
+            }
+            return resolved.mapper.mapRow(rs, rowNum);
+        }
+
+        private RowMapper<T> getMapper(ResultSet rs) throws SQLException {
+            RowMapper<T> mapper;
+            synchronized (byResultSet) {
+                mapper = byResultSet.get(rs);
+            }
+            if (mapper == null) {
+                mapper = factory.create(of(rs));
+                synchronized (byResultSet) {
+                    byResultSet.put(rs, mapper);
+                }
+            }
+            return mapper;
+        }
+    }
+
+    private static final class Resolved<T> {
+
+        private final WeakReference<ResultSet> rs;
+        private final RowMapper<T> mapper;
+
+        Resolved(ResultSet rs, RowMapper<T> mapper) {
+            this.rs = new WeakReference<>(rs);
+            this.mapper = mapper;
+        }
+    }
+}
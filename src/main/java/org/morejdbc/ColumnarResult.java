@@ -0,0 +1,444 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column-oriented result of the cursor. The numeric columns are stored in the growable primitive arrays
+ * (or off-heap buffers, see {@link #extractor(boolean)}) with the null bitmaps allocated on the first null,
+ * so the rows take 4-8 bytes per numeric value instead of the boxed objects.
+ * <p>
+ * The storage of the columns is selected by the metadata:
+ * <ul>
+ * <li>{@link IntColumn}: INTEGER, SMALLINT, TINYINT</li>
+ * <li>{@link LongColumn}: BIGINT, NUMERIC and DECIMAL with zero scale and precision up to 18</li>
+ * <li>{@link DoubleColumn}: NUMERIC and DECIMAL with non-zero scale or without precision (e.g. Oracle NUMBER),
+ * FLOAT, REAL, DOUBLE</li>
+ * <li>{@link ObjectColumn} of {@link java.math.BigDecimal}: NUMERIC and DECIMAL with zero scale and precision
+ * above 18 (e.g. Oracle NUMBER(38))</li>
+ * <li>{@link ObjectColumn}: other types via {@link ResultSet#getObject(int)}</li>
+ * </ul>
+ * Usage example:
+ * <pre>
+ * Out&lt;ColumnarResult&gt; out = Out.of(OracleSqlTypes.cursorColumnar());
+ * jdbc.execute(call("get_trades").in("day", day).out("cur", out));
+ * LongColumn ids = out.get().getLongColumn("id");
+ * DoubleColumn amounts = out.get().getDoubleColumn("amount");
+ * double sum = 0;
+ * for (int row = 0; row &lt; out.get().getRowCount(); row++) {
+ *     sum += amounts.get(row);
+ * }
+ * </pre>
+ */
+public final class ColumnarResult {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * The off-heap columns are stored in the direct buffers of 16K values, so the growth does not copy the values
+     * and does not leave the replaced direct buffers to GC.
+     */
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    /**
+     * Max length of java array supported by the JVMs.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final List<Column> columns;
+    private final int rowCount;
+
+    private ColumnarResult(List<Column> columns, int rowCount) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Extractor with on-heap storage.
+     */
+    public static ResultSetExtractor<ColumnarResult> extractor() {
+        return extractor(false);
+    }
+
+    /**
+     * @param offHeap store the numeric columns in the direct {@link ByteBuffer}s out of the java heap.
+     *                The buffers are allocated by 16K values as the rows are read and freed by GC with the result,
+     *                the max direct memory should fit the numeric columns of the results in use.
+     */
+    public static ResultSetExtractor<ColumnarResult> extractor(boolean offHeap) {
+        return rs -> extract(rs, offHeap);
+    }
+
+    private static ColumnarResult extract(ResultSet rs, boolean offHeap) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Column[] columns = new Column[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createColumn(metaData, i + 1, offHeap);
+        }
+        int row = 0;
+        while (rs.next()) {
+            if (row == MAX_ARRAY_LENGTH) {
+                throw new IllegalStateException("The result exceeds " + MAX_ARRAY_LENGTH + " rows");
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].read(rs, i + 1, row);
+            }
+            row++;
+        }
+        return new ColumnarResult(new ArrayList<>(Arrays.asList(columns)), row);
+    }
+
+    private static Column createColumn(ResultSetMetaData metaData, int idx, boolean offHeap) throws SQLException {
+        String name = metaData.getColumnLabel(idx);
+        switch (metaData.getColumnType(idx)) {
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return new IntColumn(name, offHeap);
+            case Types.BIGINT:
+                return new LongColumn(name, offHeap);
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                int precision = metaData.getPrecision(idx);
+                // H2 reports DECFLOAT as NUMERIC with zero scale
+                if (metaData.getScale(idx) == 0 && precision > 0
+                        && !"DECFLOAT".equalsIgnoreCase(metaData.getColumnTypeName(idx))) {
+                    // the integers above 18 digits do not fit long and lose precision as double
+                    return precision <= 18 ? new LongColumn(name, offHeap) : new ObjectColumn(name);
+                }
+                return new DoubleColumn(name, offHeap);
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return new DoubleColumn(name, offHeap);
+            default:
+                return new ObjectColumn(name);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such column (ignoring case)
+     */
+    public Column getColumn(String name) {
+        for (Column column : columns) {
+            if (column.name.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Column " + name + " is not found in " + columns);
+    }
+
+    public IntColumn getIntColumn(String name) {
+        return getColumn(name, IntColumn.class);
+    }
+
+    public LongColumn getLongColumn(String name) {
+        return getColumn(name, LongColumn.class);
+    }
+
+    public DoubleColumn getDoubleColumn(String name) {
+        return getColumn(name, DoubleColumn.class);
+    }
+
+    public ObjectColumn getObjectColumn(String name) {
+        return getColumn(name, ObjectColumn.class);
+    }
+
+    private <C extends Column> C getColumn(String name, Class<C> type) {
+        Column column = getColumn(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + column + " is not " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{rows=" + rowCount + ", columns=" + columns + "}";
+    }
+
+    public abstract static class Column {
+
+        private final String name;
+        /**
+         * Allocated on the first null value.
+         */
+        @Nullable
+        private long[] nulls;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        abstract void read(ResultSet rs, int idx, int row) throws SQLException;
+
+        void setNull(int row) {
+            int word = row >>> 6;
+            if (nulls == null) {
+                nulls = new long[Math.max(word + 1, INITIAL_CAPACITY >>> 6)];
+            } else if (word >= nulls.length) {
+                nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+            }
+            nulls[word] |= 1L << row;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isNull(int row) {
+            int word = row >>> 6;
+            return nulls != null && word < nulls.length && (nulls[word] & (1L << row)) != 0;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Growable storage of the fixed-size values, the java array or the chunks of direct buffers.
+     */
+    abstract static class PrimitiveColumn extends Column {
+
+        private final int valueSize;
+        /**
+         * The direct buffers of {@link #CHUNK_ROWS} values, null for on-heap storage.
+         */
+        @Nullable
+        final List<ByteBuffer> chunks;
+        int capacity;
+        int size;
+
+        PrimitiveColumn(String name, int valueSize, boolean offHeap) {
+            super(name);
+            this.valueSize = valueSize;
+            this.chunks = offHeap ? new ArrayList<>() : null;
+            this.capacity = offHeap ? 0 : INITIAL_CAPACITY;
+        }
+
+        final void ensureCapacity(int row) {
+            size = row + 1;
+            if (row < capacity) {
+                return;
+            }
+            if (chunks != null) {
+                while (capacity <= row) {
+                    chunks.add(ByteBuffer.allocateDirect(CHUNK_ROWS * valueSize).order(ByteOrder.nativeOrder()));
+                    // the last chunk ends at 2^31, which does not fit int
+                    capacity = (int) Math.min((long) capacity + CHUNK_ROWS, Integer.MAX_VALUE);
+                }
+            } else {
+                int newCapacity = (int) Math.min(Math.max(row + 1L, capacity * 2L), MAX_ARRAY_LENGTH);
+                grow(newCapacity);
+                capacity = newCapacity;
+            }
+        }
+
+        abstract void grow(int newCapacity);
+
+        final ByteBuffer chunk(int row) {
+            return chunks.get(row >>> CHUNK_SHIFT);
+        }
+
+        /**
+         * @return the offset of the value in the {@link #chunk(int)}
+         */
+        final int offset(int row) {
+            return (row & CHUNK_MASK) * valueSize;
+        }
+    }
+
+    public static final class IntColumn extends PrimitiveColumn {
+
+        private int[] values;
+
+        IntColumn(String name, boolean offHeap) {
+            super(name, Integer.BYTES, offHeap);
+            this.values = offHeap ? null : new int[capacity];
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int idx, int row) throws SQLException {
+            int value = rs.getInt(idx);
+            if (rs.wasNull()) {
+                setNull(row);
+            }
+            ensureCapacity(row);
+            if (chunks != null) {
+                chunk(row).putInt(offset(row), value);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        /**
+         * @return the value or 0 for null, see {@link #isNull(int)}
+         */
+        public int get(int row) {
+            return chunks != null ? chunk(row).getInt(offset(row)) : values[row];
+        }
+
+        /**
+         * @return the copy of the values, 0 for nulls
+         */
+        public int[] toArray() {
+            if (chunks == null) {
+                return Arrays.copyOf(values, size);
+            }
+            int[] array = new int[size];
+            for (int row = 0; row < size; row++) {
+                array[row] = get(row);
+            }
+            return array;
+        }
+    }
+
+    public static final class LongColumn extends PrimitiveColumn {
+
+        private long[] values;
+
+        LongColumn(String name, boolean offHeap) {
+            super(name, Long.BYTES, offHeap);
+            this.values = offHeap ? null : new long[capacity];
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int idx, int row) throws SQLException {
+            long value = rs.getLong(idx);
+            if (rs.wasNull()) {
+                setNull(row);
+            }
+            ensureCapacity(row);
+            if (chunks != null) {
+                chunk(row).putLong(offset(row), value);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        /**
+         * @return the value or 0 for null, see {@link #isNull(int)}
+         */
+        public long get(int row) {
+            return chunks != null ? chunk(row).getLong(offset(row)) : values[row];
+        }
+
+        /**
+         * @return the copy of the values, 0 for nulls
+         */
+        public long[] toArray() {
+            if (chunks == null) {
+                return Arrays.copyOf(values, size);
+            }
+            long[] array = new long[size];
+            for (int row = 0; row < size; row++) {
+                array[row] = get(row);
+            }
+            return array;
+        }
+    }
+
+    public static final class DoubleColumn extends PrimitiveColumn {
+
+        private double[] values;
+
+        DoubleColumn(String name, boolean offHeap) {
+            super(name, Double.BYTES, offHeap);
+            this.values = offHeap ? null : new double[capacity];
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int idx, int row) throws SQLException {
+            double value = rs.getDouble(idx);
+            if (rs.wasNull()) {
+                setNull(row);
+            }
+            ensureCapacity(row);
+            if (chunks != null) {
+                chunk(row).putDouble(offset(row), value);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        /**
+         * @return the value or 0 for null, see {@link #isNull(int)}
+         */
+        public double get(int row) {
+            return chunks != null ? chunk(row).getDouble(offset(row)) : values[row];
+        }
+
+        /**
+         * @return the copy of the values, 0 for nulls
+         */
+        public double[] toArray() {
+            if (chunks == null) {
+                return Arrays.copyOf(values, size);
+            }
+            double[] array = new double[size];
+            for (int row = 0; row < size; row++) {
+                array[row] = get(row);
+            }
+            return array;
+        }
+    }
+
+    public static final class ObjectColumn extends Column {
+
+        private final List<Object> values = new ArrayList<>();
+
+        ObjectColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int idx, int row) throws SQLException {
+            Object value = rs.getObject(idx);
+            if (value == null) {
+                setNull(row);
+            }
+            values.add(value);
+        }
+
+        @Nullable
+        public Object get(int row) {
+            return values.get(row);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.Assert;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RowMapper} which creates the objects via the constructor, e.g. of the record. The constructor
+ * parameters are matched with the columns by name ignoring case and underscores ({@code firstName} matches
+ * {@code FIRST_NAME}). The column indexes are resolved once per {@link ResultSet} with {@link ColumnIndex},
+ * the rows are read by index with the getter of the parameter type, the constructor is invoked
+ * via {@link MethodHandle}.
+ * <p>
+ * Usage example:
+ * <pre>
+ * public record Item(long id, String name, @Nullable BigDecimal price) {}
+ * ...
+ * private static final RowMapper&lt;Item&gt; ITEM_MAPPER = ConstructorRowMapper.of(Item.class);
+ * ...
+ * Out&lt;List&lt;Item&gt;&gt; items = Out.of(OracleSqlTypes.cursor(ITEM_MAPPER));
+ * </pre>
+ * The mapper is thread-safe. The parameter names of non-record classes are resolved with
+ * {@link BeanUtils#getParameterNames(Constructor)}, so the classes should be compiled with
+ * {@code -parameters}, debug info or {@link java.beans.ConstructorProperties}, otherwise the column names
+ * should be specified explicitly.
+ */
+public final class ConstructorRowMapper<T> implements RowMapper<T> {
+
+    private final Class<T> type;
+    private final String[] columnNames;
+    private final ColumnReader[] readers;
+    private final MethodHandle constructor;
+    private final RowMapper<T> indexedMapper = ColumnIndex.rowMapper(this::createMapper);
+
+    private ConstructorRowMapper(Class<T> type, Constructor<T> constructor, String[] columnNames) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Assert.isTrue(parameterTypes.length == columnNames.length, "Constructor of " + type.getName()
+                + " has " + parameterTypes.length + " parameters, but " + columnNames.length + " columns are given");
+        this.type = type;
+        this.columnNames = columnNames;
+        this.readers = new ColumnReader[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            readers[i] = reader(parameterTypes[i]);
+        }
+        try {
+            constructor.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Constructor of " + type.getName() + " is not accessible", e);
+        }
+    }
+
+    /**
+     * Uses the canonical constructor of the record or the only public constructor of the class.
+     *
+     * @throws IllegalArgumentException if the parameter names are not available, see {@link #of(Class, String...)}
+     */
+    public static <T> ConstructorRowMapper<T> of(Class<T> type) {
+        Constructor<T> constructor = findConstructor(type);
+        String[] names = getRecordComponentNames(type);
+        if (names == null) {
+            names = getParameterNames(constructor);
+        }
+        return new ConstructorRowMapper<>(type, constructor, names);
+    }
+
+    /**
+     * @param columnNames the column names of the constructor parameters in order
+     */
+    public static <T> ConstructorRowMapper<T> of(Class<T> type, String... columnNames) {
+        return new ConstructorRowMapper<>(type, findConstructor(type), columnNames.clone());
+    }
+
+    private static String[] getParameterNames(Constructor<?> constructor) {
+        String[] names;
+        try {
+            names = BeanUtils.getParameterNames(constructor);
+        } catch (IllegalStateException e) {
+            names = null;
+        }
+        if (names == null) {
+            throw new IllegalArgumentException("Parameter names of " + constructor + " are not available,"
+                    + " compile the class with -parameters or specify the columns via of(type, columnNames...)");
+        }
+        return names;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> findConstructor(Class<T> type) {
+        requireNonNull(type, "type");
+        Class<?>[] componentTypes = getRecordComponentTypes(type);
+        if (componentTypes != null) {
+            try {
+                return type.getDeclaredConstructor(componentTypes);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Canonical constructor of " + type.getName() + " is not found", e);
+            }
+        }
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalArgumentException("Expected one public constructor of " + type.getName()
+                    + ", but found " + constructors.length);
+        }
+        return (Constructor<T>) constructors[0];
+    }
+
+    /**
+     * Records are resolved via reflection to keep Java 8 compatibility.
+     */
+    @Nullable
+    private static Object[] getRecordComponents(Class<?> type) {
+        try {
+            Method method = Class.class.getMethod("getRecordComponents");
+            return (Object[]) method.invoke(type);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String[] getRecordComponentNames(Class<?> type) {
+        Object[] components = getRecordComponents(type);
+        if (components == null) {
+            return null;
+        }
+        String[] names = new String[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                names[i] = (String) components[i].getClass().getMethod("getName").invoke(components[i]);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to read record components of " + type.getName(), e);
+        }
+        return names;
+    }
+
+    @Nullable
+    private static Class<?>[] getRecordComponentTypes(Class<?> type) {
+        Object[] components = getRecordComponents(type);
+        if (components == null) {
+            return null;
+        }
+        Class<?>[] types = new Class<?>[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to read record components of " + type.getName(), e);
+        }
+        return types;
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return indexedMapper.mapRow(rs, rowNum);
+    }
+
+    private RowMapper<T> createMapper(ColumnIndex columns) {
+        int[] indexes = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            indexes[i] = columns.findIndex(columnNames[i]);
+            if (indexes[i] < 0) {
+                throw new IllegalStateException("Column " + columnNames[i] + " of " + type.getName()
+                        + " is not found in " + columns.getLabels());
+            }
+        }
+        return (rs, rowNum) -> newInstance(rs, indexes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance(ResultSet rs, int[] indexes) throws SQLException {
+        Object[] args = new Object[readers.length];
+        for (int i = 0; i < readers.length; i++) {
+            args[i] = readers[i].read(rs, indexes[i]);
+        }
+        try {
+            return (T) (Object) constructor.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create " + type.getName(), e);
+        }
+    }
+
+    private static ColumnReader reader(Class<?> type) {
+        if (type == int.class) {
+            return ResultSet::getInt;
+        } else if (type == long.class) {
+            return ResultSet::getLong;
+        } else if (type == double.class) {
+            return ResultSet::getDouble;
+        } else if (type == boolean.class) {
+            return ResultSet::getBoolean;
+        } else if (type == Integer.class) {
+            return DBUtils::getIntOrNull;
+        } else if (type == Long.class) {
+            return DBUtils::getLongOrNull;
+        } else if (type == Double.class) {
+            return DBUtils::getDoubleOrNull;
+        } else if (type == Boolean.class) {
+            return DBUtils::getBooleanOrNull;
+        } else if (type == String.class) {
+            return ResultSet::getString;
+        } else if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (type == Timestamp.class) {
+            return ResultSet::getTimestamp;
+        } else if (type == byte[].class) {
+            return ResultSet::getBytes;
+        } else if (type.isEnum()) {
+            return (rs, idx) -> {
+                String value = rs.getString(idx);
+                return value == null ? null : enumValue(type, value);
+            };
+        } else if (type.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported primitive type " + type);
+        }
+        return (rs, idx) -> rs.getObject(idx, type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String value) {
+        return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        @Nullable
+        Object read(ResultSet rs, int idx) throws SQLException;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstructorRowMapper{" + type.getName() + "}";
+    }
+}
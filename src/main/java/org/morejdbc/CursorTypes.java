@@ -0,0 +1,158 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.Assert;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Common implementation of the database-specific cursor types.
+ *
+ * @see OracleSqlTypes
+ * @see PostgresSqlTypes
+ */
+final class CursorTypes {
+
+    /**
+     * Fetch size is not changed, the driver default is used.
+     */
+    static final int DEFAULT_FETCH_SIZE = 0;
+
+    static <T> SqlType<T> cursor(int sqlType, ResultSetExtractor<T> extractor, int fetchSize) {
+        return cursor(sqlType, extractor, fetchSize, null);
+    }
+
+    /**
+     * @param rowCount the number of rows by the extracted value, reported to {@link CallListener}
+     */
+    static <T> SqlType<T> cursor(int sqlType, ResultSetExtractor<T> extractor, int fetchSize,
+                                 @Nullable ToLongFunction<T> rowCount) {
+        return cursor(sqlType, extractor, fetchSize, rowCount, false);
+    }
+
+    /**
+     * Cursor passed to the handler row by row, the value is the number of rows.
+     */
+    static SqlType<Long> cursorCallback(int sqlType, RowCallbackHandler rowCallbackHandler, int fetchSize) {
+        return cursor(sqlType, callbackExtractor(rowCallbackHandler), fetchSize, Long::longValue, true);
+    }
+
+    /**
+     * Cursor mapped and passed to the consumer row by row, the value is the number of rows.
+     */
+    static <T> SqlType<Long> cursorConsumer(int sqlType, RowMapper<T> rowMapper, Consumer<? super T> consumer,
+                                            int fetchSize) {
+        return cursor(sqlType, consumerExtractor(rowMapper, consumer), fetchSize, Long::longValue, true);
+    }
+
+    /**
+     * @param callback true if the extractor passes the rows to the callback of the caller, such values are not
+     *                 cached and not coalesced, see {@link SqlType#isShareable()}
+     */
+    private static <T> SqlType<T> cursor(int sqlType, ResultSetExtractor<T> extractor, int fetchSize,
+                                         @Nullable ToLongFunction<T> rowCount, boolean callback) {
+        requireNonNull(extractor, "extractor");
+        Assert.isTrue(fetchSize >= 0, "fetchSize should not be negative");
+        return SqlType.ofCursor("cursor", sqlType, rs -> {
+            if (fetchSize > 0) {
+                rs.setFetchSize(fetchSize);
+            }
+            return extractor.extractData(rs);
+        }, rowCount, callback);
+    }
+
+    /**
+     * Lazy stream of the cursor rows. The cursor is registered in the {@link ResourceHandle},
+     * closing of the stream closes the handle.
+     */
+    static <T> SqlType<Stream<T>> cursorStream(int sqlType, RowMapper<T> rowMapper, int fetchSize) {
+        requireNonNull(rowMapper, "rowMapper");
+        Assert.isTrue(fetchSize >= 0, "fetchSize should not be negative");
+        return SqlType.ofHandle("cursor", sqlType, (cs, idx, handle) -> {
+            ResultSet rs = (ResultSet) cs.getObject(idx);
+            if (rs == null) {
+                return null;
+            }
+            handle.register(rs);
+            if (fetchSize > 0) {
+                rs.setFetchSize(fetchSize);
+            }
+            return StreamSupport.stream(new ResultSetSpliterator<>(rs, rowMapper), false)
+                    .onClose(handle::close);
+        });
+    }
+
+    /**
+     * Extractor which passes the rows to the handler as they are fetched and returns the number of rows.
+     */
+    private static ResultSetExtractor<Long> callbackExtractor(RowCallbackHandler rowCallbackHandler) {
+        requireNonNull(rowCallbackHandler, "rowCallbackHandler");
+        return rs -> {
+            long rows = 0;
+            while (rs.next()) {
+                rowCallbackHandler.processRow(rs);
+                rows++;
+            }
+            return rows;
+        };
+    }
+
+    /**
+     * Extractor which passes the mapped rows to the consumer as they are fetched and returns the number of rows.
+     */
+    private static <T> ResultSetExtractor<Long> consumerExtractor(RowMapper<T> rowMapper, Consumer<? super T> consumer) {
+        requireNonNull(rowMapper, "rowMapper");
+        requireNonNull(consumer, "consumer");
+        return rs -> {
+            long rows = 0;
+            while (rs.next()) {
+                // rowNum is int in RowMapper contract
+                consumer.accept(rowMapper.mapRow(rs, (int) rows));
+                rows++;
+            }
+            return rows;
+        };
+    }
+
+    private static class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ResultSet rs;
+        private final RowMapper<T> rowMapper;
+        private int rowNum;
+
+        ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rs = rs;
+            this.rowMapper = rowMapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(rs, rowNum++));
+                return true;
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("cursorStream", null, e);
+            }
+        }
+    }
+
+    private CursorTypes() {
+    }
+}
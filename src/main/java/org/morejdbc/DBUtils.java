@@ -5,8 +5,14 @@ import org.jetbrains.annotations.Nullable;
 import java.sql.Blob;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 
+/**
+ * Null-safe getters of the primitive values and the BLOB bytes.
+ * The getters by column label look up the column on each call, the getters by index should be preferred
+ * for the row loops, see {@link ColumnIndex}.
+ */
 public class DBUtils {
 
     @Nullable
@@ -18,6 +24,15 @@ public class DBUtils {
         return value;
     }
 
+    @Nullable
+    public static Integer getIntOrNull(ResultSet rs, int columnIndex) throws SQLException {
+        int value = rs.getInt(columnIndex);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
     @Nullable
     public static Integer getIntOrNull(CallableStatement cs, int idx) throws SQLException {
         int value = cs.getInt(idx);
@@ -36,6 +51,15 @@ public class DBUtils {
         return value;
     }
 
+    @Nullable
+    public static Long getLongOrNull(ResultSet rs, int columnIndex) throws SQLException {
+        long value = rs.getLong(columnIndex);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
     @Nullable
     public static Long getLongOrNull(CallableStatement cs, int idx) throws SQLException {
         long value = cs.getLong(idx);
@@ -54,11 +78,50 @@ public class DBUtils {
         return value;
     }
 
+    @Nullable
+    public static Double getDoubleOrNull(ResultSet rs, int columnIndex) throws SQLException {
+        double value = rs.getDouble(columnIndex);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    @Nullable
+    public static Double getDoubleOrNull(CallableStatement cs, int idx) throws SQLException {
+        double value = cs.getDouble(idx);
+        if (cs.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    @Nullable
+    public static Boolean getBooleanOrNull(ResultSet rs, int columnIndex) throws SQLException {
+        boolean value = rs.getBoolean(columnIndex);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
     @Nullable
     public static byte[] getBlobBytes(ResultSet rs, String columnName) throws SQLException {
         Blob blob = rs.getBlob(columnName);
         try {
-            return blob == null || blob.length() == 0 ? null : blob.getBytes(1, (int) blob.length());
+            return blob == null ? null : getBytes(blob);
+        } finally {
+            if (blob != null) {
+                blob.free();
+            }
+        }
+    }
+
+    @Nullable
+    public static byte[] getBlobBytes(ResultSet rs, int columnIndex) throws SQLException {
+        Blob blob = rs.getBlob(columnIndex);
+        try {
+            return blob == null ? null : getBytes(blob);
         } finally {
             if (blob != null) {
                 blob.free();
@@ -70,7 +133,7 @@ public class DBUtils {
     public static byte[] getBlobBytes(CallableStatement cs, int idx) throws SQLException {
         Blob blob = cs.getBlob(idx);
         try {
-            return blob == null || blob.length() == 0 ? null : blob.getBytes(1, (int) blob.length());
+            return blob == null ? null : getBytes(blob);
         } finally {
             if (blob != null) {
                 blob.free();
@@ -78,6 +141,18 @@ public class DBUtils {
         }
     }
 
+    @Nullable
+    private static byte[] getBytes(Blob blob) throws SQLException {
+        long length = blob.length();
+        if (length == 0) {
+            return null;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new SQLDataException("Blob of " + length + " bytes does not fit byte[], use LobSqlTypes");
+        }
+        return blob.getBytes(1, (int) length);
+    }
+
     private DBUtils() {
     }
 }
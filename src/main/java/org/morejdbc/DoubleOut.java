@@ -0,0 +1,58 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Out parameter of {@link SqlTypes#DOUBLE} type which stores the primitive value without boxing.
+ * The value is read with {@link CallableStatement#getDouble(int)}, the null value is returned
+ * as {@code 0} with {@link #isNull()} flag set.
+ */
+public class DoubleOut extends AbstractOut<Double> implements DoubleSupplier {
+
+    private double value;
+    private boolean isNull;
+
+    DoubleOut() {
+        super(SqlTypes.DOUBLE);
+    }
+
+    public static DoubleOut of() {
+        return new DoubleOut();
+    }
+
+    @Override
+    void extract(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
+        this.value = cs.getDouble(idx);
+        this.isNull = cs.wasNull();
+    }
+
+    @Override
+    void set(@Nullable Double value) {
+        this.value = value == null ? 0 : value;
+        this.isNull = value == null;
+    }
+
+    @Override
+    public double getAsDouble() {
+        Assert.state(afterExecuted, "value was not set");
+        return value;
+    }
+
+    public boolean isNull() {
+        Assert.state(afterExecuted, "value was not set");
+        return isNull;
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleOut{" +
+                "type=" + type +
+                (afterExecuted ? ", value=" + (isNull ? "null" : String.valueOf(value)) : "") +
+                '}';
+    }
+}
@@ -30,6 +30,27 @@ class In<T> {
         return new In<>(value, type);
     }
 
+    /**
+     * Not boxing IN value bound with {@link CallableStatement#setInt}.
+     */
+    static In<Integer> of(int value) {
+        return new IntIn(value);
+    }
+
+    /**
+     * Not boxing IN value bound with {@link CallableStatement#setLong}.
+     */
+    static In<Long> of(long value) {
+        return new LongIn(value);
+    }
+
+    /**
+     * Not boxing IN value bound with {@link CallableStatement#setDouble}.
+     */
+    static In<Double> of(double value) {
+        return new DoubleIn(value);
+    }
+
     static In<Integer> of(@Nullable Integer value) {
         return of(value, SqlTypes.INTEGER);
     }
@@ -38,6 +59,10 @@ class In<T> {
         return of(value, SqlTypes.BIGINT);
     }
 
+    static In<Double> of(@Nullable Double value) {
+        return of(value, SqlTypes.DOUBLE);
+    }
+
     static In<BigDecimal> of(@Nullable BigDecimal value) {
         return of(value, SqlTypes.DECIMAL);
     }
@@ -63,8 +88,75 @@ class In<T> {
         return type;
     }
 
-    void beforeExecute(CallableStatement cs, int idx) throws SQLException {
-        type.inBeforeExecute(cs, idx, value);
+    /**
+     * @return the resource to release after the execution or null
+     */
+    @Nullable
+    AutoCloseable beforeExecute(CallableStatement cs, int idx) throws SQLException {
+        return type.inBeforeExecute(cs, idx, value);
+    }
+
+    private static final class IntIn extends In<Integer> {
+
+        private final int intValue;
+
+        IntIn(int value) {
+            super(null, SqlTypes.INTEGER);
+            this.intValue = value;
+        }
+
+        @Override
+        Integer getValue() {
+            return intValue;
+        }
+
+        @Override
+        AutoCloseable beforeExecute(CallableStatement cs, int idx) throws SQLException {
+            cs.setInt(idx, intValue);
+            return null;
+        }
+    }
+
+    private static final class LongIn extends In<Long> {
+
+        private final long longValue;
+
+        LongIn(long value) {
+            super(null, SqlTypes.BIGINT);
+            this.longValue = value;
+        }
+
+        @Override
+        Long getValue() {
+            return longValue;
+        }
+
+        @Override
+        AutoCloseable beforeExecute(CallableStatement cs, int idx) throws SQLException {
+            cs.setLong(idx, longValue);
+            return null;
+        }
+    }
+
+    private static final class DoubleIn extends In<Double> {
+
+        private final double doubleValue;
+
+        DoubleIn(double value) {
+            super(null, SqlTypes.DOUBLE);
+            this.doubleValue = value;
+        }
+
+        @Override
+        Double getValue() {
+            return doubleValue;
+        }
+
+        @Override
+        AutoCloseable beforeExecute(CallableStatement cs, int idx) throws SQLException {
+            cs.setDouble(idx, doubleValue);
+            return null;
+        }
     }
 
     @Override
@@ -72,21 +164,22 @@ class In<T> {
         if (this == o) {
             return true;
         }
-        if (o == null || getClass() != o.getClass()) {
+        // primitive and boxed values are equal
+        if (!(o instanceof In)) {
             return false;
         }
         In<?> that = (In<?>) o;
-        return Objects.equals(value, that.value)
+        return Objects.equals(getValue(), that.getValue())
                 && type.equals(that.type);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value, type);
+        return Objects.hash(getValue(), type);
     }
 
     @Override
     public String toString() {
-        return "In{" + type.getPrintName() + " " + value + "}";
+        return "In{" + type.getPrintName() + " " + getValue() + "}";
     }
 }
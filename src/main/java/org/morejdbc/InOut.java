@@ -1,5 +1,6 @@
 package org.morejdbc;
 
+import org.jetbrains.annotations.Nullable;
 import org.springframework.util.Assert;
 
 import java.sql.CallableStatement;
@@ -17,18 +18,24 @@ class InOut<T> {
         this.out = out;
     }
 
-    void beforeExecute(CallableStatement cs, int idx) throws SQLException {
+    /**
+     * @return the resource of IN value to release after the execution or null
+     */
+    @Nullable
+    AutoCloseable beforeExecute(CallableStatement cs, int idx) throws SQLException {
+        AutoCloseable resource = null;
         if (in != null) {
-            in.beforeExecute(cs, idx);
+            resource = in.beforeExecute(cs, idx);
         }
         if (out != null) {
             out.beforeExecute(cs, idx);
         }
+        return resource;
     }
 
-    void afterExecute(CallableStatement cs, int idx) throws SQLException {
+    void afterExecute(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
         if (out != null) {
-            out.afterExecute(cs, idx);
+            out.afterExecute(cs, idx, handle);
         }
     }
 
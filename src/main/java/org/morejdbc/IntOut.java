@@ -0,0 +1,58 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+
+/**
+ * Out parameter of {@link SqlTypes#INTEGER} type which stores the primitive value without boxing.
+ * The value is read with {@link CallableStatement#getInt(int)}, the null value is returned
+ * as {@code 0} with {@link #isNull()} flag set.
+ */
+public class IntOut extends AbstractOut<Integer> implements IntSupplier {
+
+    private int value;
+    private boolean isNull;
+
+    IntOut() {
+        super(SqlTypes.INTEGER);
+    }
+
+    public static IntOut of() {
+        return new IntOut();
+    }
+
+    @Override
+    void extract(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
+        this.value = cs.getInt(idx);
+        this.isNull = cs.wasNull();
+    }
+
+    @Override
+    void set(@Nullable Integer value) {
+        this.value = value == null ? 0 : value;
+        this.isNull = value == null;
+    }
+
+    @Override
+    public int getAsInt() {
+        Assert.state(afterExecuted, "value was not set");
+        return value;
+    }
+
+    public boolean isNull() {
+        Assert.state(afterExecuted, "value was not set");
+        return isNull;
+    }
+
+    @Override
+    public String toString() {
+        return "IntOut{" +
+                "type=" + type +
+                (afterExecuted ? ", value=" + (isNull ? "null" : String.valueOf(value)) : "") +
+                '}';
+    }
+}
@@ -0,0 +1,211 @@
+package org.morejdbc;
+
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Helper class to call anonymous blocks with indexed IN parameters in batch mode.
+ * The statement is prepared once, each row of parameters is added via {@link CallableStatement#addBatch()}
+ * and the rows are sent with {@link CallableStatement#executeBatch()} in chunks.
+ * Returns update counts per row.
+ * <p>
+ * Usage example:
+ * <pre>
+ * int[] counts = jdbcTemplate.execute(batchSql("{call insert_item(?, ?)}")
+ *         .in(1).in("first").addBatch()
+ *         .in(2).in("second").addBatch());
+ * </pre>
+ * OUT parameters are not supported by JDBC batch execution.
+ * Note, that the object cannot be reused again.
+ */
+public class JdbcBatchCall implements ConnectionCallback<int[]>, SqlProvider {
+
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final String sql;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    List<In<?>[]> rows = new ArrayList<>();
+    private List<In<?>> row = new ArrayList<>();
+
+    private JdbcBatchCall(@Language("SQL") String sql) {
+        this.sql = requireNonNull(sql, "sql");
+    }
+
+    public static JdbcBatchCall batchSql(@Language("SQL") String sql) {
+        return new JdbcBatchCall(sql);
+    }
+
+    /**
+     * Max number of rows sent to the database by single {@link CallableStatement#executeBatch()}.
+     */
+    public JdbcBatchCall chunkSize(int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "chunkSize should be positive");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    private JdbcBatchCall in(In<?> in) {
+        row.add(in);
+        return this;
+    }
+
+    public <I> JdbcBatchCall in(@Nullable I inValue, SqlType<I> inType) {
+        return in(In.of(inValue, inType));
+    }
+
+    public JdbcBatchCall in(int value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(long value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(double value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable Integer value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable Long value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable BigDecimal value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable CharSequence value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable byte[] value) {
+        return in(In.of(value));
+    }
+
+    public JdbcBatchCall in(@Nullable Timestamp value) {
+        return in(In.of(value));
+    }
+
+    /**
+     * Completes the current row of parameters. The next {@code in} calls start a new row.
+     */
+    public JdbcBatchCall addBatch() {
+        Assert.state(!row.isEmpty(), "Empty batch row");
+        if (!rows.isEmpty()) {
+            Assert.state(rows.get(0).length == row.size(), "Batch rows should have the same number of parameters");
+        }
+        rows.add(row.toArray(new In[0]));
+        row = new ArrayList<>();
+        return this;
+    }
+
+    @Override
+    public int[] doInConnection(Connection conn) throws SQLException, DataAccessException {
+        List<In<?>[]> rows = getRows();
+
+        int[] updateCounts = new int[rows.size()];
+        BoundResources resources = new BoundResources();
+        try (CallableStatement cs = conn.prepareCall(sql)) {
+            int offset = 0;
+            int batched = 0;
+            for (In<?>[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    resources.add(row[i].beforeExecute(cs, i + 1));
+                }
+                cs.addBatch();
+                if (++batched == chunkSize) {
+                    offset = executeBatch(cs, updateCounts, offset);
+                    resources.release();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                executeBatch(cs, updateCounts, offset);
+            }
+            return updateCounts;
+        } finally {
+            resources.release();
+        }
+    }
+
+    private static int executeBatch(CallableStatement cs, int[] updateCounts, int offset) throws SQLException {
+        int[] chunkCounts = cs.executeBatch();
+        System.arraycopy(chunkCounts, 0, updateCounts, offset, chunkCounts.length);
+        return offset + chunkCounts.length;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JdbcBatchCall that = (JdbcBatchCall) o;
+        return chunkSize == that.chunkSize &&
+                sql.equals(that.sql) &&
+                rowsEquals(rows, that.rows);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(sql, chunkSize);
+        if (rows != null) {
+            for (In<?>[] row : rows) {
+                result = 31 * result + Arrays.hashCode(row);
+            }
+        }
+        return result;
+    }
+
+    private static boolean rowsEquals(@Nullable List<In<?>[]> rows1, @Nullable List<In<?>[]> rows2) {
+        if (rows1 == null || rows2 == null) {
+            return rows1 == rows2;
+        }
+        if (rows1.size() != rows2.size()) {
+            return false;
+        }
+        for (int i = 0; i < rows1.size(); i++) {
+            if (!Arrays.equals(rows1.get(i), rows2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<In<?>[]> getRows() {
+        if (this.rows == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        Assert.state(row.isEmpty(), "Incomplete batch row, addBatch() call is missing");
+        List<In<?>[]> rows = this.rows;
+        this.rows = null;
+        return rows;
+    }
+}
@@ -0,0 +1,429 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Calls the statement once per input record in batch mode. The records are read from the iterator lazily,
+ * the binder sets the IN values of each record directly to the statement and the rows are sent with
+ * {@link CallableStatement#executeBatch()} in chunks, so the memory use does not depend on the input size.
+ * <p>
+ * Usage example:
+ * <pre>
+ * JdbcBulkCall.Result result = jdbcTemplate.execute(bulkSql("{call insert_item(?, ?)}", items.stream(),
+ *                 (row, item) -&gt; row.in(item.getId()).in(item.getName()))
+ *         .chunkSize(500)
+ *         .commitEachChunk()
+ *         .onFailure((item, e) -&gt; log.warn("Failed to insert {}", item, e)));
+ * </pre>
+ * Without {@link #onFailure} the first failed chunk throws {@link BatchUpdateException}.
+ * OUT parameters are not supported by JDBC batch execution.
+ * Note, that the object cannot be reused again.
+ */
+public class JdbcBulkCall<R> implements ConnectionCallback<JdbcBulkCall.Result>, SqlProvider {
+
+    private static final Log logger = LogFactory.getLog(JdbcBulkCall.class);
+
+    private final String sql;
+    private Iterator<? extends R> records;
+    @Nullable
+    private final AutoCloseable source;
+    private final RowBinder<? super R> binder;
+    private int chunkSize = JdbcBatchCall.DEFAULT_CHUNK_SIZE;
+    private boolean commitEachChunk;
+    @Nullable
+    private FailureHandler<? super R> failureHandler;
+
+    private JdbcBulkCall(String sql, Iterator<? extends R> records, @Nullable AutoCloseable source,
+                         RowBinder<? super R> binder) {
+        this.sql = requireNonNull(sql, "sql");
+        this.records = requireNonNull(records, "records");
+        this.source = source;
+        this.binder = requireNonNull(binder, "binder");
+    }
+
+    public static <R> JdbcBulkCall<R> bulkSql(@Language("SQL") String sql, Iterator<? extends R> records,
+                                              RowBinder<? super R> binder) {
+        return new JdbcBulkCall<>(sql, records, null, binder);
+    }
+
+    /**
+     * The stream is closed after the execution.
+     */
+    public static <R> JdbcBulkCall<R> bulkSql(@Language("SQL") String sql, Stream<? extends R> records,
+                                              RowBinder<? super R> binder) {
+        return new JdbcBulkCall<>(sql, records.iterator(), records, binder);
+    }
+
+    /**
+     * Calls the procedure of the template, the values should be bound in the declared order of parameter names.
+     */
+    public static <R> JdbcBulkCall<R> bulkCall(NamedCallTemplate<Void> template, Iterator<? extends R> records,
+                                               RowBinder<? super R> binder) {
+        return new JdbcBulkCall<>(template.getSql(), records, null, binder);
+    }
+
+    /**
+     * The stream is closed after the execution.
+     */
+    public static <R> JdbcBulkCall<R> bulkCall(NamedCallTemplate<Void> template, Stream<? extends R> records,
+                                               RowBinder<? super R> binder) {
+        return new JdbcBulkCall<>(template.getSql(), records.iterator(), records, binder);
+    }
+
+    /**
+     * Max number of rows sent to the database by single {@link CallableStatement#executeBatch()}.
+     */
+    public JdbcBulkCall<R> chunkSize(int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "chunkSize should be positive");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Commit the connection after each chunk unless it is in auto-commit mode.
+     * Should not be used with the connection of the Spring-managed transaction.
+     */
+    public JdbcBulkCall<R> commitEachChunk() {
+        this.commitEachChunk = true;
+        return this;
+    }
+
+    /**
+     * Report the failed rows to the handler and continue the execution. The records of the current chunk are kept
+     * to report them and to send again the rows which were not processed by the driver after the failed one.
+     * <p>
+     * Out of auto-commit mode each chunk is sent after a savepoint: a failed row aborts the transaction
+     * on some databases (e.g. PostgreSQL), so the chunk is rolled back to the savepoint and sent again
+     * without the failed row.
+     */
+    public JdbcBulkCall<R> onFailure(FailureHandler<? super R> failureHandler) {
+        this.failureHandler = requireNonNull(failureHandler, "failureHandler");
+        return this;
+    }
+
+    @Override
+    public Result doInConnection(Connection conn) throws SQLException, DataAccessException {
+        Iterator<? extends R> records = getRecords();
+        Result result = new Result();
+        BoundResources resources = new BoundResources();
+        boolean savepoints = failureHandler != null && !conn.getAutoCommit()
+                && conn.getMetaData().supportsSavepoints();
+        try (CallableStatement cs = conn.prepareCall(sql)) {
+            Row row = new Row(cs, resources);
+            List<R> chunk = failureHandler == null ? null : new ArrayList<>(Math.min(chunkSize, 1024));
+            int batched = 0;
+            while (records.hasNext()) {
+                R record = records.next();
+                addBatch(row, record);
+                if (chunk != null) {
+                    chunk.add(record);
+                }
+                if (++batched == chunkSize) {
+                    executeChunk(conn, row, chunk, batched, savepoints, result);
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                executeChunk(conn, row, chunk, batched, savepoints, result);
+            }
+        } finally {
+            resources.release();
+            closeSource();
+        }
+        return result;
+    }
+
+    private void addBatch(Row row, R record) throws SQLException {
+        row.idx = 1;
+        binder.bind(row, record);
+        row.complete();
+        row.cs.addBatch();
+    }
+
+    private void executeChunk(Connection conn, Row row, @Nullable List<R> chunk, int size, boolean savepoints,
+                              Result result) throws SQLException {
+        int from = 0;
+        while (from < size) {
+            Savepoint savepoint = savepoints ? conn.setSavepoint() : null;
+            try {
+                result.add(row.cs.executeBatch());
+                from = size;
+                if (savepoint != null) {
+                    releaseSavepoint(conn, savepoint);
+                }
+            } catch (BatchUpdateException e) {
+                if (chunk == null) {
+                    throw e;
+                }
+                row.cs.clearBatch();
+                int[] counts = e.getUpdateCounts();
+                int processed = counts == null ? 0 : counts.length;
+                if (savepoint != null) {
+                    // the rows after the failed one can fail only because the transaction is aborted
+                    conn.rollback(savepoint);
+                    int failed = firstFailed(counts, size);
+                    if (failed < 0) {
+                        throw e;
+                    }
+                    fail(chunk.remove(failed), e, result);
+                    size--;
+                    logger.debug("Batch row failed, resending " + size + " rows of the chunk after rollback");
+                    for (int i = 0; i < size; i++) {
+                        addBatch(row, chunk.get(i));
+                    }
+                    continue;
+                }
+                for (int i = 0; i < processed; i++) {
+                    if (counts[i] == Statement.EXECUTE_FAILED) {
+                        fail(chunk.get(from + i), e, result);
+                    }
+                }
+                if (counts != null) {
+                    result.add(counts);
+                }
+                if (from + processed >= size) {
+                    break;
+                }
+                // the driver stopped at the failed row, send the rest again
+                fail(chunk.get(from + processed), e, result);
+                from += processed + 1;
+                logger.debug("Batch row failed, resending " + (size - from) + " rows of the chunk");
+                for (int i = from; i < size; i++) {
+                    addBatch(row, chunk.get(i));
+                }
+            }
+        }
+        row.resources.release();
+        if (chunk != null) {
+            chunk.clear();
+        }
+        result.chunkCount++;
+        if (commitEachChunk && !conn.getAutoCommit()) {
+            conn.commit();
+        }
+    }
+
+    private void releaseSavepoint(Connection conn, Savepoint savepoint) {
+        try {
+            conn.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // not supported by Oracle, released by the commit
+            logger.debug("Failed to release savepoint of " + sql, e);
+        }
+    }
+
+    /**
+     * @return the index of the first failed row of the batch or -1 if unknown
+     */
+    private static int firstFailed(@Nullable int[] counts, int size) {
+        int processed = counts == null ? 0 : counts.length;
+        for (int i = 0; i < processed; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        // the driver stopped at the failed row
+        return processed < size ? processed : -1;
+    }
+
+    private void fail(R record, SQLException e, Result result) throws SQLException {
+        result.rowCount++;
+        result.failedCount++;
+        failureHandler.onFailure(record, e);
+    }
+
+    private void closeSource() {
+        if (source != null) {
+            try {
+                source.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close the source of " + sql, e);
+            }
+        }
+    }
+
+    private Iterator<? extends R> getRecords() {
+        if (this.records == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        Iterator<? extends R> records = this.records;
+        this.records = null;
+        return records;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @FunctionalInterface
+    public interface RowBinder<R> {
+        /**
+         * Binds the IN values of the record in order of the statement parameters.
+         */
+        void bind(Row row, R record) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface FailureHandler<R> {
+        /**
+         * @param e the batch exception, can be rethrown to stop the execution
+         */
+        void onFailure(R record, SQLException e) throws SQLException;
+    }
+
+    /**
+     * Binds the values of the current row directly to the statement, the instance is reused for all rows.
+     */
+    public static final class Row {
+
+        private final CallableStatement cs;
+        private final BoundResources resources;
+        private int idx;
+        private int size = -1;
+
+        private Row(CallableStatement cs, BoundResources resources) {
+            this.cs = cs;
+            this.resources = resources;
+        }
+
+        private void complete() {
+            int rowSize = idx - 1;
+            Assert.state(rowSize > 0, "Empty batch row");
+            if (size == -1) {
+                size = rowSize;
+            } else {
+                Assert.state(size == rowSize, "Batch rows should have the same number of parameters");
+            }
+        }
+
+        public <I> Row in(@Nullable I inValue, SqlType<I> inType) throws SQLException {
+            if (inType.setter == null) {
+                throw new IllegalStateException("Type " + inType + " cannot be used as IN");
+            }
+            resources.add(inType.inBeforeExecute(cs, idx++, inValue));
+            return this;
+        }
+
+        public Row in(int value) throws SQLException {
+            cs.setInt(idx++, value);
+            return this;
+        }
+
+        public Row in(long value) throws SQLException {
+            cs.setLong(idx++, value);
+            return this;
+        }
+
+        public Row in(double value) throws SQLException {
+            cs.setDouble(idx++, value);
+            return this;
+        }
+
+        public Row in(@Nullable Integer value) throws SQLException {
+            return in(value, SqlTypes.INTEGER);
+        }
+
+        public Row in(@Nullable Long value) throws SQLException {
+            return in(value, SqlTypes.BIGINT);
+        }
+
+        public Row in(@Nullable BigDecimal value) throws SQLException {
+            return in(value, SqlTypes.DECIMAL);
+        }
+
+        public Row in(@Nullable CharSequence value) throws SQLException {
+            if (value == null) {
+                cs.setNull(idx++, Types.VARCHAR);
+            } else {
+                cs.setString(idx++, value.toString());
+            }
+            return this;
+        }
+
+        public Row in(@Nullable byte[] value) throws SQLException {
+            return in(value, SqlTypes.BLOB);
+        }
+
+        public Row in(@Nullable Timestamp value) throws SQLException {
+            return in(value, SqlTypes.TIMESTAMP);
+        }
+    }
+
+    /**
+     * The counts of the bulk execution.
+     */
+    public static final class Result {
+
+        private long rowCount;
+        private long failedCount;
+        private long updateCount;
+        private int chunkCount;
+
+        private Result() {
+        }
+
+        private void add(int[] counts) {
+            for (int count : counts) {
+                // the failed rows are counted by fail()
+                if (count != Statement.EXECUTE_FAILED) {
+                    rowCount++;
+                    if (count > 0) {
+                        updateCount += count;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the number of executed rows including the failed ones
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * @return the sum of the positive update counts reported by the driver
+         */
+        public long getUpdateCount() {
+            return updateCount;
+        }
+
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{rows=" + rowCount + ", failed=" + failedCount + ", updates=" + updateCount
+                    + ", chunks=" + chunkCount + "}";
+        }
+    }
+}
@@ -7,7 +7,6 @@ import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.SqlProvider;
 
 import java.math.BigDecimal;
-import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -27,6 +26,7 @@ public class JdbcCall implements ConnectionCallback<Void>, SqlProvider {
     private final String sql;
 
     List<InOut<?>> parameters = new ArrayList<>();
+    private CallOptions options = CallOptions.DEFAULT;
 
     private JdbcCall(@Language("SQL") String sql) {
         this.sql = requireNonNull(sql, "sql");
@@ -36,6 +36,22 @@ public class JdbcCall implements ConnectionCallback<Void>, SqlProvider {
         return new JdbcCall(sql);
     }
 
+    /**
+     * Reuse prepared statements of the connection, see {@link CallableStatementCache}.
+     */
+    public JdbcCall statementCache(CallableStatementCache statementCache) {
+        this.options = options.withStatementCache(statementCache);
+        return this;
+    }
+
+    /**
+     * Report the timings of the execution to the listener.
+     */
+    public JdbcCall listener(CallListener listener) {
+        this.options = options.withListener(listener);
+        return this;
+    }
+
     private JdbcCall in(In<?> in) {
         parameters.add(new InOut<>(in, null));
         return this;
@@ -45,6 +61,18 @@ public class JdbcCall implements ConnectionCallback<Void>, SqlProvider {
         return in(In.of(inValue, inType));
     }
 
+    public JdbcCall in(int value) {
+        return in(In.of(value));
+    }
+
+    public JdbcCall in(long value) {
+        return in(In.of(value));
+    }
+
+    public JdbcCall in(double value) {
+        return in(In.of(value));
+    }
+
     public JdbcCall in(@Nullable Integer value) {
         return in(In.of(value));
     }
@@ -79,6 +107,18 @@ public class JdbcCall implements ConnectionCallback<Void>, SqlProvider {
         return outImpl(out);
     }
 
+    public JdbcCall out(IntOut out) {
+        return outImpl(out);
+    }
+
+    public JdbcCall out(LongOut out) {
+        return outImpl(out);
+    }
+
+    public JdbcCall out(DoubleOut out) {
+        return outImpl(out);
+    }
+
     public <O> JdbcCall out(SqlType<O> sqlType, Consumer<O> consumer) {
         return outImpl(new ConsumerOut<>(sqlType, consumer));
     }
@@ -91,23 +131,15 @@ public class JdbcCall implements ConnectionCallback<Void>, SqlProvider {
 
     @Override
     public Void doInConnection(Connection conn) throws SQLException, DataAccessException {
-        InOut<?>[] parameters = getParameters();
-
-        try (CallableStatement cs = conn.prepareCall(sql)) {
-            for (int i = 0; i < parameters.length; i++) {
-                InOut<?> parameter = parameters[i];
-                parameter.beforeExecute(cs, i + 1);
-            }
-
-            cs.execute();
-
-            for (int i = 0; i < parameters.length; i++) {
-                InOut<?> parameter = parameters[i];
-                parameter.afterExecute(cs, i + 1);
-            }
+        return doInConnection(conn, null);
+    }
 
-            return null;
-        }
+    /**
+     * @param handle if not null, the statement is not closed, but registered in the handle
+     */
+    Void doInConnection(Connection conn, @Nullable ResourceHandle handle) throws SQLException {
+        InOut<?>[] parameters = getParameters();
+        return NamedJdbcCall.execute(conn, null, sql, null, parameters, null, options, handle);
     }
 
     @Override
@@ -0,0 +1,326 @@
+package org.morejdbc;
+
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Types;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * BLOB and CLOB types which stream the content instead of holding it in the heap as {@code byte[]} or String.
+ * <p>
+ * Usage example:
+ * <pre>
+ * Out&lt;Long&gt; signedBytes = Out.of(blobToFile(Paths.get("/data/document-signed.pdf")));
+ * jdbc.execute(call("sign_document")
+ *         .in("content", Paths.get("/data/document.pdf"), BLOB_FILE)
+ *         .out("signed_content", signedBytes));
+ * </pre>
+ * The out values of the callback types are the number of bytes or chars read, the lobs are freed after the reading.
+ */
+public class LobSqlTypes {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * BLOB read from the stream by the driver during the execution, the stream is not closed.
+     */
+    public static final SqlType<InputStream> BLOB_STREAM = SqlType.of("blobStream", Types.BLOB,
+            (cs, idx, sqlType, stream) -> {
+                if (stream == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setBlob(idx, stream);
+                }
+            }, null);
+
+    /**
+     * BLOB read from the file. The file is opened when the driver starts to read it
+     * and is closed when the end of the file is reached or after the execution.
+     */
+    public static final SqlType<Path> BLOB_FILE = SqlType.ofResource("blobFile", Types.BLOB, null,
+            (cs, idx, sqlType, path) -> {
+                if (path == null) {
+                    cs.setNull(idx, sqlType);
+                    return null;
+                }
+                long length = size(path);
+                LazyFileInputStream stream = new LazyFileInputStream(path);
+                cs.setBlob(idx, stream, length);
+                return stream;
+            }, null);
+
+    /**
+     * CLOB read from the reader by the driver during the execution, the reader is not closed.
+     */
+    public static final SqlType<Reader> CLOB_READER = SqlType.of("clobReader", Types.CLOB,
+            (cs, idx, sqlType, reader) -> {
+                if (reader == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setClob(idx, reader);
+                }
+            }, null);
+
+    /**
+     * BLOB passed to the callback as a stream, the value is the number of bytes read from the stream.
+     * The callback is not called for null BLOB, the value is null.
+     */
+    public static SqlType<Long> blobCallback(StreamCallback<InputStream> callback) {
+        requireNonNull(callback, "callback");
+        return SqlType.ofCallback("blobCallback", Types.BLOB, (cs, idx) -> {
+            Blob blob = cs.getBlob(idx);
+            if (blob == null) {
+                return null;
+            }
+            try (CountingInputStream stream = new CountingInputStream(blob.getBinaryStream())) {
+                callback.accept(stream);
+                return stream.count;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read blob", e);
+            } finally {
+                blob.free();
+            }
+        });
+    }
+
+    /**
+     * BLOB copied to the file in chunks, the existing file is replaced. The value is the number of bytes.
+     */
+    public static SqlType<Long> blobToFile(Path target) {
+        return blobToFile(target, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static SqlType<Long> blobToFile(Path target, int chunkSize) {
+        requireNonNull(target, "target");
+        Assert.isTrue(chunkSize > 0, "chunkSize should be positive");
+        return blobCallback(stream -> {
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                copy(stream, channel, chunkSize);
+            }
+        });
+    }
+
+    /**
+     * BLOB written to the channel in chunks, the channel is not closed. The value is the number of bytes.
+     */
+    public static SqlType<Long> blobToChannel(WritableByteChannel target) {
+        return blobToChannel(target, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static SqlType<Long> blobToChannel(WritableByteChannel target, int chunkSize) {
+        requireNonNull(target, "target");
+        Assert.isTrue(chunkSize > 0, "chunkSize should be positive");
+        return blobCallback(stream -> copy(stream, target, chunkSize));
+    }
+
+    /**
+     * Copies in chunks of up to chunkSize bytes, each chunk is read from the stream to the buffer
+     * and written to the channel.
+     */
+    private static void copy(InputStream stream, WritableByteChannel target, int chunkSize) throws IOException {
+        byte[] chunk = new byte[chunkSize];
+        int read;
+        while ((read = stream.read(chunk)) != -1) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * CLOB passed to the callback as a reader, the value is the number of chars read from the reader.
+     * The callback is not called for null CLOB, the value is null.
+     */
+    public static SqlType<Long> clobCallback(StreamCallback<Reader> callback) {
+        requireNonNull(callback, "callback");
+        return SqlType.ofCallback("clobCallback", Types.CLOB, (cs, idx) -> {
+            Clob clob = cs.getClob(idx);
+            if (clob == null) {
+                return null;
+            }
+            try (CountingReader reader = new CountingReader(clob.getCharacterStream())) {
+                callback.accept(reader);
+                return reader.count;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read clob", e);
+            } finally {
+                clob.free();
+            }
+        });
+    }
+
+    /**
+     * CLOB copied to the file in the charset, the existing file is replaced. The value is the number of chars.
+     */
+    public static SqlType<Long> clobToFile(Path target, Charset charset) {
+        requireNonNull(target, "target");
+        requireNonNull(charset, "charset");
+        return clobCallback(reader -> {
+            try (Writer writer = Files.newBufferedWriter(target, charset)) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    writer.write(buffer, 0, read);
+                }
+            }
+        });
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + path, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface StreamCallback<S> {
+        void accept(S stream) throws IOException;
+    }
+
+    /**
+     * Opens the file on the first read and closes it at the end, so the file is not opened
+     * if the statement is not executed. Closed after the execution if the driver did not read to the end.
+     */
+    private static class LazyFileInputStream extends InputStream {
+
+        private final Path path;
+        private InputStream stream;
+        private boolean closed;
+
+        LazyFileInputStream(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (closed) {
+                return -1;
+            }
+            int b = stream().read();
+            if (b == -1) {
+                close();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            int read = stream().read(b, off, len);
+            if (read == -1) {
+                close();
+            }
+            return read;
+        }
+
+        private InputStream stream() throws IOException {
+            if (stream == null) {
+                stream = Files.newInputStream(path);
+            }
+            return stream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream stream;
+        private long count;
+
+        CountingInputStream(InputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = stream.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = stream.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = stream.skip(n);
+            if (skipped > 0) {
+                count += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return stream.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    private static class CountingReader extends Reader {
+
+        private final Reader reader;
+        private long count;
+
+        CountingReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int read = reader.read(cbuf, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private LobSqlTypes() {
+    }
+}
@@ -0,0 +1,58 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.util.function.LongSupplier;
+
+/**
+ * Out parameter of {@link SqlTypes#BIGINT} type which stores the primitive value without boxing.
+ * The value is read with {@link CallableStatement#getLong(int)}, the null value is returned
+ * as {@code 0} with {@link #isNull()} flag set.
+ */
+public class LongOut extends AbstractOut<Long> implements LongSupplier {
+
+    private long value;
+    private boolean isNull;
+
+    LongOut() {
+        super(SqlTypes.BIGINT);
+    }
+
+    public static LongOut of() {
+        return new LongOut();
+    }
+
+    @Override
+    void extract(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
+        this.value = cs.getLong(idx);
+        this.isNull = cs.wasNull();
+    }
+
+    @Override
+    void set(@Nullable Long value) {
+        this.value = value == null ? 0 : value;
+        this.isNull = value == null;
+    }
+
+    @Override
+    public long getAsLong() {
+        Assert.state(afterExecuted, "value was not set");
+        return value;
+    }
+
+    public boolean isNull() {
+        Assert.state(afterExecuted, "value was not set");
+        return isNull;
+    }
+
+    @Override
+    public String toString() {
+        return "LongOut{" +
+                "type=" + type +
+                (afterExecuted ? ", value=" + (isNull ? "null" : String.valueOf(value)) : "") +
+                '}';
+    }
+}
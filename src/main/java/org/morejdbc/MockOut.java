@@ -22,8 +22,11 @@ public class MockOut<T> extends Out<T> {
             setTo((JdbcCall) call, value);
         } else if (call instanceof NamedJdbcCall) {
             setTo((NamedJdbcCall<?>) call, value);
+        } else if (call instanceof NamedCallTemplate.Invocation) {
+            setTo((NamedCallTemplate.Invocation<?>) call, value);
         } else {
-            throw new IllegalArgumentException("Unexpected mock " + call + " should be either JdbcCall or NamedJdbcCall");
+            throw new IllegalArgumentException("Unexpected mock " + call
+                    + " should be either JdbcCall, NamedJdbcCall or NamedCallTemplate.Invocation");
         }
     }
 
@@ -38,4 +41,10 @@ public class MockOut<T> extends Out<T> {
         AbstractOut<T> out = (AbstractOut<T>) call.parameters.get(index).out;
         out.afterExecute(value);
     }
+
+    public void setTo(NamedCallTemplate.Invocation<?> call, T value) {
+        @SuppressWarnings("unchecked")
+        AbstractOut<T> out = (AbstractOut<T>) call.parameters[index].out;
+        out.afterExecute(value);
+    }
 }
@@ -0,0 +1,349 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable pre-compiled form of {@link NamedJdbcCall}. The call sql and the parameter layout are calculated once,
+ * the template is thread-safe and is intended to be stored in a static field.
+ * Each {@link #bind()} produces a single-use {@link Invocation}, the values are bound by position
+ * in the declared order of parameter names.
+ * <p>
+ * Usage example:
+ * <pre>
+ * private static final NamedCallTemplate&lt;Void&gt; TEST_MATH =
+ *         NamedCallTemplate.procedure("test_math", "val1", "val2", "out_sum", "out_mlt");
+ * ...
+ * Out&lt;Integer&gt; sum = Out.of(INTEGER);
+ * Out&lt;Long&gt; mlt = Out.of(BIGINT);
+ * jdbcTemplate.execute(TEST_MATH.bind()
+ *         .in(1)
+ *         .in(2L)
+ *         .out(sum)
+ *         .out(mlt));
+ * </pre>
+ * For functions:
+ * <pre>
+ * private static final NamedCallTemplate&lt;String&gt; GET_CONCAT =
+ *         NamedCallTemplate.function("get_concat", VARCHAR, "s1", "s2");
+ * ...
+ * String result = jdbcTemplate.execute(GET_CONCAT.bind()
+ *         .in("abc")
+ *         .in("def"));
+ * </pre>
+ */
+public final class NamedCallTemplate<T> implements SqlProvider {
+
+    private static final Log logger = LogFactory.getLog(NamedCallTemplate.class);
+
+    private final String name;
+    @Nullable
+    private final SqlType<T> returnType;
+    private final String[] parameterNames;
+    private final String sql;
+    private final CallOptions options;
+
+    private NamedCallTemplate(String name, @Nullable SqlType<T> returnType, String[] parameterNames) {
+        this.name = requireNonNull(name, "name");
+        this.returnType = returnType;
+        this.parameterNames = parameterNames.clone();
+        for (String parameterName : this.parameterNames) {
+            requireNonNull(parameterName, "parameterName");
+        }
+        this.sql = NamedJdbcCall.getSql(name, returnType != null, this.parameterNames);
+        this.options = CallOptions.DEFAULT;
+        logger.trace("sql: " + sql);
+    }
+
+    private NamedCallTemplate(NamedCallTemplate<T> template, CallOptions options) {
+        this.name = template.name;
+        this.returnType = template.returnType;
+        this.parameterNames = template.parameterNames;
+        this.sql = template.sql;
+        this.options = options;
+    }
+
+    public static NamedCallTemplate<Void> procedure(String procedureName, String... parameterNames) {
+        return new NamedCallTemplate<>(procedureName, null, parameterNames);
+    }
+
+    public static <T> NamedCallTemplate<T> function(String functionName, SqlType<T> returnType,
+                                                    String... parameterNames) {
+        return new NamedCallTemplate<>(functionName, requireNonNull(returnType, "returnType"), parameterNames);
+    }
+
+    /**
+     * Returns the copy of the template which reuses prepared statements of the connection,
+     * see {@link CallableStatementCache}.
+     */
+    public NamedCallTemplate<T> withStatementCache(CallableStatementCache statementCache) {
+        return new NamedCallTemplate<>(this, options.withStatementCache(statementCache));
+    }
+
+    /**
+     * Returns the copy of the template which extracts the cursor out parameters concurrently,
+     * see {@link NamedJdbcCall#parallelCursors(Executor)}.
+     */
+    public NamedCallTemplate<T> withParallelCursors(Executor cursorExecutor) {
+        return new NamedCallTemplate<>(this, options.withCursorExecutor(cursorExecutor));
+    }
+
+    /**
+     * Returns the copy of the template which reports the timings of the executions to the listener.
+     */
+    public NamedCallTemplate<T> withListener(CallListener listener) {
+        return new NamedCallTemplate<>(this, options.withListener(listener));
+    }
+
+    /**
+     * Returns the copy of the template which generates the sql of the database, see
+     * {@link NamedJdbcCall#dialect(CallDialect)}. The sql is generated on each invocation then,
+     * {@link #getSql()} keeps the default Oracle syntax.
+     */
+    public NamedCallTemplate<T> withDialect(CallDialect dialect) {
+        return new NamedCallTemplate<>(this, options.withDialect(dialect));
+    }
+
+    /**
+     * Returns the copy of the template which checks the invocations by the declared signature,
+     * see {@link ProcedureMetadataCache}.
+     */
+    public NamedCallTemplate<T> withMetadataCache(ProcedureMetadataCache metadataCache) {
+        return new NamedCallTemplate<>(this, options.withMetadataCache(metadataCache));
+    }
+
+    /**
+     * Creates new invocation of the template. The parameter values should be bound in the declared order.
+     */
+    public Invocation<T> bind() {
+        return new Invocation<>(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return "NamedCallTemplate{" + sql + "}";
+    }
+
+    /**
+     * Single-use bound call of the {@link NamedCallTemplate}.
+     */
+    public static final class Invocation<T> implements ConnectionCallback<T>, SqlProvider {
+
+        private final NamedCallTemplate<T> template;
+        InOut<?>[] parameters;
+        private int size;
+        private SQLExceptionHandler<T> sqlExceptionHandler;
+        private String sql;
+
+        private Invocation(NamedCallTemplate<T> template) {
+            this.template = template;
+            this.sql = template.sql;
+            this.parameters = new InOut<?>[template.parameterNames.length];
+        }
+
+        private Invocation<T> add(InOut<?> parameter) {
+            Assert.state(parameters != null, "Already executed, this object cannot be reused.");
+            if (size == parameters.length) {
+                throw new IllegalStateException("Too many parameters for " + template.sql);
+            }
+            parameters[size++] = parameter;
+            return this;
+        }
+
+        private Invocation<T> in(In<?> in) {
+            return add(new InOut<>(requireNonNull(in, "in"), null));
+        }
+
+        public <I> Invocation<T> in(@Nullable I inValue, SqlType<I> inType) {
+            return in(In.of(inValue, inType));
+        }
+
+        public Invocation<T> in(int value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(long value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(double value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable Integer value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable Long value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable BigDecimal value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable CharSequence value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable byte[] value) {
+            return in(In.of(value));
+        }
+
+        public Invocation<T> in(@Nullable Timestamp value) {
+            return in(In.of(value));
+        }
+
+        private Invocation<T> outImpl(AbstractOut<?> out) {
+            out.onAdd(size);
+            return add(new InOut<>(null, requireNonNull(out, "out")));
+        }
+
+        public Invocation<T> out(Out<?> out) {
+            return outImpl(out);
+        }
+
+        public Invocation<T> out(IntOut out) {
+            return outImpl(out);
+        }
+
+        public Invocation<T> out(LongOut out) {
+            return outImpl(out);
+        }
+
+        public Invocation<T> out(DoubleOut out) {
+            return outImpl(out);
+        }
+
+        public <O> Invocation<T> out(SqlType<O> sqlType, Consumer<O> consumer) {
+            return outImpl(new ConsumerOut<>(sqlType, consumer));
+        }
+
+        private <V> Invocation<T> inOutImpl(In<V> in, AbstractOut<V> out) {
+            out.onAdd(size);
+            return add(new InOut<>(requireNonNull(in, "in"), requireNonNull(out, "out")));
+        }
+
+        public Invocation<T> inOut(@Nullable Integer inValue, Out<Integer> out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(@Nullable Long inValue, Out<Long> out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(@Nullable BigDecimal inValue, Out<BigDecimal> out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(@Nullable CharSequence inValue, Out<String> out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(@Nullable Timestamp inValue, Out<Timestamp> out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(int inValue, IntOut out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(long inValue, LongOut out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> inOut(double inValue, DoubleOut out) {
+            return inOutImpl(In.of(inValue), out);
+        }
+
+        public Invocation<T> handleException(SQLExceptionHandler<T> sqlExceptionHandler) {
+            Assert.state(this.sqlExceptionHandler == null, "sqlExceptionHandler already set");
+            this.sqlExceptionHandler = sqlExceptionHandler;
+            return this;
+        }
+
+        @Override
+        public T doInConnection(Connection conn) throws SQLException, DataAccessException {
+            return doInConnection(conn, null);
+        }
+
+        T doInConnection(Connection conn, @Nullable ResourceHandle handle) throws SQLException {
+            InOut<?>[] parameters = getParameters();
+            ProcedureMetadataCache metadataCache = template.options.metadataCache;
+            if (metadataCache != null) {
+                parameters = metadataCache.check(conn, template.name, template.returnType != null,
+                        template.parameterNames, parameters);
+            }
+            CallDialect dialect = template.options.dialect;
+            if (dialect != null) {
+                CallDialect.CallSql callSql = dialect.getCallSql(conn, template.name, template.returnType != null,
+                        template.parameterNames);
+                this.sql = callSql.getSql();
+                parameters = callSql.reorder(parameters);
+            }
+            return NamedJdbcCall.execute(conn, template.name, sql, template.returnType, parameters,
+                    sqlExceptionHandler, template.options, handle);
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Invocation<?> that = (Invocation<?>) o;
+            return template == that.template &&
+                    Arrays.equals(parameters, that.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(template, Arrays.hashCode(parameters));
+        }
+
+        private InOut<?>[] getParameters() {
+            if (this.parameters == null) {
+                throw new IllegalStateException("Already executed, this object cannot be reused.");
+            }
+            if (size != parameters.length) {
+                throw new IllegalStateException("Expected " + parameters.length + " parameters, but "
+                        + size + " bound for " + template.sql);
+            }
+            InOut<?>[] parameters = this.parameters;
+            this.parameters = null;
+            return parameters;
+        }
+    }
+}
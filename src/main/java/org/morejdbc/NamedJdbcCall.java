@@ -14,8 +14,10 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
@@ -23,10 +25,9 @@ import static java.util.Objects.requireNonNull;
 /**
  * Helper class to call stored procedures and functions with named parameters.
  * Makes the call sql itself.
- * Note, that the object cannot be reused again.
+ * Note, that the object cannot be reused again, see {@link NamedCallTemplate} for the reusable alternative.
  * <p>
- * Known supported databases: Oracle and DB2.
- * Known unsupported databases: PostgreSQL, MySQL.
+ * Known supported databases: Oracle and DB2, PostgreSQL and MySQL with {@link #dialect(CallDialect)}.
  * <p>
  * Usage example:
  * <pre>
@@ -77,6 +78,7 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
 
     List<NamedParameter<?>> parameters = new ArrayList<>();
     private SQLExceptionHandler<T> sqlExceptionHandler;
+    private CallOptions options = CallOptions.DEFAULT;
 
     private final String name;
     @Nullable
@@ -97,6 +99,51 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return new NamedJdbcCall<>(functionName, Objects.requireNonNull(returnType, "returnType"));
     }
 
+    /**
+     * Reuse prepared statements of the connection, see {@link CallableStatementCache}.
+     */
+    public NamedJdbcCall<T> statementCache(CallableStatementCache statementCache) {
+        this.options = options.withStatementCache(statementCache);
+        return this;
+    }
+
+    /**
+     * Extract the cursor out parameters concurrently with the executor, each cursor is read in separate task.
+     * The cursor ResultSets are obtained in the calling thread, the last cursor is read in the calling thread too.
+     * Useful for the procedures with several cursors, but note that some drivers serialize the fetches
+     * of the same connection, so the gain is only in concurrent row mapping and processing by the sinks
+     * (e.g. {@link OracleSqlTypes#cursorConsumer}).
+     */
+    public NamedJdbcCall<T> parallelCursors(Executor cursorExecutor) {
+        this.options = options.withCursorExecutor(cursorExecutor);
+        return this;
+    }
+
+    /**
+     * Report the timings of the execution to the listener.
+     */
+    public NamedJdbcCall<T> listener(CallListener listener) {
+        this.options = options.withListener(listener);
+        return this;
+    }
+
+    /**
+     * Generate the sql of the database, e.g. {@link CallDialects#POSTGRES}, {@link CallDialects#MYSQL} or
+     * {@link CallDialects#detect(javax.sql.DataSource)}. The default is Oracle syntax.
+     */
+    public NamedJdbcCall<T> dialect(CallDialect dialect) {
+        this.options = options.withDialect(dialect);
+        return this;
+    }
+
+    /**
+     * Check the parameters by the declared signature before the execution, see {@link ProcedureMetadataCache}.
+     */
+    public NamedJdbcCall<T> metadataCache(ProcedureMetadataCache metadataCache) {
+        this.options = options.withMetadataCache(metadataCache);
+        return this;
+    }
+
     private NamedJdbcCall<T> in(String name, In<?> in) {
         parameters.add(new NamedParameter<>(name, requireNonNull(in, "in"), null));
         return this;
@@ -106,6 +153,26 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return in(name, In.of(inValue, inType));
     }
 
+    /**
+     * Binds the value with the declared type of the parameter if {@link #metadataCache} is set,
+     * otherwise the type is guessed by the value.
+     */
+    public NamedJdbcCall<T> inObject(String name, @Nullable Object value) {
+        return in(name, In.of(value, SqlTypes.OBJECT));
+    }
+
+    public NamedJdbcCall<T> in(String name, int value) {
+        return in(name, In.of(value));
+    }
+
+    public NamedJdbcCall<T> in(String name, long value) {
+        return in(name, In.of(value));
+    }
+
+    public NamedJdbcCall<T> in(String name, double value) {
+        return in(name, In.of(value));
+    }
+
     public NamedJdbcCall<T> in(String name, @Nullable Integer value) {
         return in(name, In.of(value));
     }
@@ -140,6 +207,18 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return outImpl(name, out);
     }
 
+    public NamedJdbcCall<T> out(String name, IntOut out) {
+        return outImpl(name, out);
+    }
+
+    public NamedJdbcCall<T> out(String name, LongOut out) {
+        return outImpl(name, out);
+    }
+
+    public NamedJdbcCall<T> out(String name, DoubleOut out) {
+        return outImpl(name, out);
+    }
+
     public <O> NamedJdbcCall<T> out(String name, SqlType<O> sqlType, Consumer<O> consumer) {
         return outImpl(name, new ConsumerOut<>(sqlType, consumer));
     }
@@ -180,6 +259,18 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return inOut(name, In.of(inValue), out);
     }
 
+    public NamedJdbcCall<T> inOut(String name, int inValue, IntOut out) {
+        return inOutImpl(name, In.of(inValue), out);
+    }
+
+    public NamedJdbcCall<T> inOut(String name, long inValue, LongOut out) {
+        return inOutImpl(name, In.of(inValue), out);
+    }
+
+    public NamedJdbcCall<T> inOut(String name, double inValue, DoubleOut out) {
+        return inOutImpl(name, In.of(inValue), out);
+    }
+
     private <V> NamedJdbcCall<T> inOut(String name, In<V> in, Consumer<V> outConsumer) {
         return inOutImpl(name, in, new ConsumerOut<>(in.getType(), outConsumer));
     }
@@ -210,6 +301,28 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return this;
     }
 
+    /**
+     * Compares the type by identity.
+     */
+    private static final class TypeIdentity {
+
+        private final SqlType<?> type;
+
+        TypeIdentity(SqlType<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TypeIdentity && ((TypeIdentity) o).type == type;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(type);
+        }
+    }
+
     static class NamedParameter<T> extends InOut<T> {
 
         private final String name;
@@ -219,6 +332,10 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
             this.name = requireNonNull(name, "name");
         }
 
+        String getName() {
+            return name;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -247,13 +364,54 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
 
     @Override
     public T doInConnection(Connection conn) throws SQLException, DataAccessException {
-        NamedParameter<?>[] parameters = getParameters();
+        return doInConnection(conn, null);
+    }
+
+    /**
+     * @param handle if not null, the statement is not closed, but registered in the handle
+     */
+    T doInConnection(Connection conn, @Nullable ResourceHandle handle) throws SQLException {
+        InOut<?>[] parameters = getParameters();
+        String[] names = getNames(parameters);
 
-        this.sql = getSql(returnType != null, parameters);
+        if (options.metadataCache != null) {
+            parameters = options.metadataCache.check(conn, name, returnType != null, names, parameters);
+        }
+        if (options.dialect == null) {
+            this.sql = getSql(name, returnType != null, names);
+        } else {
+            CallDialect.CallSql callSql = options.dialect.getCallSql(conn, name, returnType != null, names);
+            this.sql = callSql.getSql();
+            parameters = callSql.reorder(parameters);
+        }
         logger.trace("sql: " + sql);
 
-        try (CallableStatement cs = conn.prepareCall(this.sql)) {
-            @Nullable Out<T> result = returnType != null ? Out.of(returnType) : null;
+        return execute(conn, name, this.sql, returnType, parameters, sqlExceptionHandler, options, handle);
+    }
+
+    static <T> T execute(Connection conn, @Nullable String name, String sql, @Nullable SqlType<T> returnType,
+                         InOut<?>[] parameters, @Nullable SQLExceptionHandler<T> sqlExceptionHandler,
+                         CallOptions options, @Nullable ResourceHandle handle) throws SQLException {
+        if (handle == null) {
+            // fail before the execution, not after the side effects of the call
+            checkHandleTypes(returnType, parameters);
+        }
+        CallTimer timer = options.listener != null ? new CallTimer() : null;
+        @Nullable Out<T> result = returnType != null ? Out.of(returnType) : null;
+        CallableStatement cs = null;
+        BoundResources resources = new BoundResources();
+        boolean success = false;
+        try {
+            if (handle == null) {
+                cs = CallableStatementCache.prepareCall(options.statementCache, conn, sql);
+            } else {
+                cs = conn.prepareCall(sql);
+                handle.register(cs);
+            }
+            if (timer != null) {
+                timer.next();
+            }
+
             int offset;
             if (result != null) {
                 offset = 1;
@@ -262,25 +420,66 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
                 offset = 0;
             }
             for (int i = 0; i < parameters.length; i++) {
-                NamedParameter<?> parameter = parameters[i];
-                parameter.beforeExecute(cs, i + offset + 1);
+                InOut<?> parameter = parameters[i];
+                resources.add(parameter.beforeExecute(cs, i + offset + 1));
+            }
+            if (timer != null) {
+                timer.next();
             }
 
             cs.execute();
+            if (timer != null) {
+                timer.next();
+            }
 
-            if (result != null) {
-                result.afterExecute(cs, 1);
+            if (options.cursorExecutor != null) {
+                ParallelCursors.afterExecute(cs, result, parameters, offset, handle, options.cursorExecutor);
+            } else {
+                if (result != null) {
+                    result.afterExecute(cs, 1, handle);
+                }
+                for (int i = 0; i < parameters.length; i++) {
+                    InOut<?> parameter = parameters[i];
+                    parameter.afterExecute(cs, i + offset + 1, handle);
+                }
             }
-            for (int i = 0; i < parameters.length; i++) {
-                NamedParameter<?> parameter = parameters[i];
-                parameter.afterExecute(cs, i + offset + 1);
+            if (timer != null) {
+                timer.next();
             }
+            success = true;
             return result != null ? result.get() : null;
         } catch (SQLException e) {
+            if (timer != null) {
+                timer.failed(e);
+            }
             if (sqlExceptionHandler != null) {
                 return sqlExceptionHandler.handle(e);
             }
             throw e;
+        } catch (RuntimeException | Error e) {
+            if (timer != null) {
+                timer.failed(e);
+            }
+            throw e;
+        } finally {
+            resources.release();
+            if (handle == null && cs != null) {
+                CallableStatementCache.release(options.statementCache, conn, sql, cs, success);
+            }
+            if (timer != null) {
+                timer.report(options.listener, name, sql, result, parameters);
+            }
+        }
+    }
+
+    private static void checkHandleTypes(@Nullable SqlType<?> returnType, InOut<?>[] parameters) {
+        if (returnType != null && returnType.requiresHandle()) {
+            throw returnType.requiresHandleException();
+        }
+        for (InOut<?> parameter : parameters) {
+            if (parameter.out != null && parameter.out.type.requiresHandle()) {
+                throw parameter.out.type.requiresHandleException();
+            }
         }
     }
 
@@ -308,7 +507,58 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return Objects.hash(parameters, name, returnType);
     }
 
-    private NamedParameter<?>[] getParameters() {
+    /**
+     * @return the snapshot of the function name, return type and IN values, which stays the same after
+     * the execution, see {@link CachingCallExecutor}
+     */
+    Object getCacheKey() {
+        if (this.parameters == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        Assert.state(returnType != null, "Only function calls can be cached: " + name);
+        Assert.state(sqlExceptionHandler == null, "Calls with sqlExceptionHandler cannot be cached: " + name);
+        Assert.state(returnType.isShareable(), "Calls returning " + returnType + " cannot be cached: " + name);
+        for (NamedParameter<?> parameter : parameters) {
+            Assert.state(parameter.out == null, "Calls with OUT parameters cannot be cached: " + name);
+        }
+        return getCoalescingKey();
+    }
+
+    /**
+     * @return the snapshot of the values compared by {@link #equals(Object)}, the OUT parameters are compared
+     * by type, the cursor types by identity (the mappers cannot be compared), or null if the call has
+     * {@link SQLExceptionHandler} or the values which cannot be shared (see {@link SqlType#isShareable()}),
+     * see {@link CoalescingCallExecutor}
+     */
+    @Nullable
+    Object getCoalescingKey() {
+        if (this.parameters == null) {
+            throw new IllegalStateException("Already executed, this object cannot be reused.");
+        }
+        if (sqlExceptionHandler != null || (returnType != null && !returnType.isShareable())) {
+            return null;
+        }
+        List<Object> key = new ArrayList<>(parameters.size() + 2);
+        key.add(name);
+        key.add(typeKey(returnType));
+        for (NamedParameter<?> parameter : parameters) {
+            if (parameter.out == null) {
+                key.add(parameter);
+            } else if (!parameter.out.type.isShareable()) {
+                return null;
+            } else {
+                key.add(Arrays.asList(parameter.getName(), parameter.in, typeKey(parameter.out.type)));
+            }
+        }
+        return key;
+    }
+
+    @Nullable
+    private static Object typeKey(@Nullable SqlType<?> type) {
+        return type == null || type.cursorExtractor == null ? type : new TypeIdentity(type);
+    }
+
+    NamedParameter<?>[] getParameters() {
         if (this.parameters == null) {
             throw new IllegalStateException("Already executed, this object cannot be reused.");
         }
@@ -317,17 +567,60 @@ public class NamedJdbcCall<T> implements ConnectionCallback<T>, SqlProvider {
         return parameters;
     }
 
-    private String getSql(boolean function, NamedParameter<?>... parameters) {
-        StringBuilder sql = new StringBuilder(function ? "{? = call " : "{call ")
-                .append(name).append("(");
+    private static String[] getNames(InOut<?>[] parameters) {
+        String[] names = new String[parameters.length];
         for (int i = 0; i < parameters.length; i++) {
-            NamedParameter<?> parameter = parameters[i];
+            names[i] = ((NamedParameter<?>) parameters[i]).name;
+        }
+        return names;
+    }
+
+    static String getSql(String name, boolean function, String... parameterNames) {
+        StringBuilder sql = new StringBuilder(function ? "{? = call " : "{call ");
+        appendCall(sql, name, parameterNames);
+        sql.append("}");
+        return sql.toString();
+    }
+
+    static void appendCall(StringBuilder sql, String name, String... parameterNames) {
+        sql.append(name).append("(");
+        for (int i = 0; i < parameterNames.length; i++) {
             if (i > 0) {
                 sql.append(", ");
             }
-            sql.append(parameter.name).append(" => ?");
+            sql.append(parameterNames[i]).append(" => ?");
         }
-        sql.append(")}");
-        return sql.toString();
+        sql.append(")");
+    }
+
+    /**
+     * @return true if the call can be executed as a statement of PL/SQL block, see {@link CallPipeline}
+     */
+    boolean isMergeable() {
+        return sqlExceptionHandler == null && options.cursorExecutor == null && options.listener == null
+                && options.dialect == null && options.metadataCache == null;
+    }
+
+    /**
+     * Appends the call as the statement of PL/SQL block and its parameters to the block parameters.
+     * The call cannot be executed after.
+     *
+     * @return the out of function result, null for procedures
+     */
+    @Nullable
+    Out<T> appendTo(StringBuilder block, List<InOut<?>> blockParameters) {
+        NamedParameter<?>[] parameters = getParameters();
+        Out<T> result = null;
+        if (returnType != null) {
+            result = Out.of(returnType);
+            blockParameters.add(new InOut<>(null, result));
+            block.append("? := ");
+        }
+        appendCall(block, name, getNames(parameters));
+        block.append(";\n");
+        for (NamedParameter<?> parameter : parameters) {
+            blockParameters.add(parameter);
+        }
+        return result;
     }
 }
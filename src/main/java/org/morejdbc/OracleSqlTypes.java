@@ -1,11 +1,22 @@
 package org.morejdbc;
 
+import org.jetbrains.annotations.Nullable;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.RowMapperResultSetExtractor;
 
-import java.sql.ResultSet;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Oracle Extensions
@@ -18,6 +29,17 @@ public class OracleSqlTypes {
      */
     private static final int ORACLE_TYPES_CURSOR = -10;
 
+    private static final String ORACLE_CONNECTION = "oracle.jdbc.OracleConnection";
+
+    private static final String ODCI_NUMBER_LIST = "SYS.ODCINUMBERLIST";
+    private static final String ODCI_VARCHAR2_LIST = "SYS.ODCIVARCHAR2LIST";
+
+    /**
+     * OracleConnection.createOracleArray(String, Object), resolved lazily as the driver is optional
+     */
+    @Nullable
+    private static volatile Method createOracleArray;
+
     /**
      * OracleTypes.CURSOR
      *
@@ -26,15 +48,161 @@ public class OracleSqlTypes {
      * @return
      */
     public static <T> SqlType<List<T>> cursor(RowMapper<T> rowMapper) {
-        return SqlType.of("cursor", ORACLE_TYPES_CURSOR, null, (cs, idx) -> {
-            // Alternative way (Oracle documentation):
-            // ResultSet rs = ((OracleCallableStatement) cs).getCursor(idx)
-            // Also: cs.unwrap(OracleCallableStatement.class)
-            try (ResultSet rs = (ResultSet) cs.getObject(idx)) {
-                ResultSetExtractor<List<T>> extractor = new RowMapperResultSetExtractor<>(rowMapper);
-                return extractor.extractData(rs);
+        return cursor(rowMapper, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * OracleTypes.CURSOR with the fetch size of cursor ResultSet
+     */
+    public static <T> SqlType<List<T>> cursor(RowMapper<T> rowMapper, int fetchSize) {
+        // Alternative way (Oracle documentation):
+        // ResultSet rs = ((OracleCallableStatement) cs).getCursor(idx)
+        // Also: cs.unwrap(OracleCallableStatement.class)
+        return CursorTypes.cursor(ORACLE_TYPES_CURSOR, new RowMapperResultSetExtractor<>(rowMapper), fetchSize,
+                List::size);
+    }
+
+    /**
+     * OracleTypes.CURSOR processed by the extractor, the value is the extractor result.
+     */
+    public static <R> SqlType<R> cursorExtractor(ResultSetExtractor<R> extractor) {
+        return cursorExtractor(extractor, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    public static <R> SqlType<R> cursorExtractor(ResultSetExtractor<R> extractor, int fetchSize) {
+        return CursorTypes.cursor(ORACLE_TYPES_CURSOR, extractor, fetchSize);
+    }
+
+    /**
+     * OracleTypes.CURSOR extracted column by column into the primitive arrays, see {@link ColumnarResult}.
+     */
+    public static SqlType<ColumnarResult> cursorColumnar() {
+        return cursorColumnar(CursorTypes.DEFAULT_FETCH_SIZE, false);
+    }
+
+    /**
+     * @param offHeap store the numeric columns out of the java heap
+     */
+    public static SqlType<ColumnarResult> cursorColumnar(int fetchSize, boolean offHeap) {
+        return CursorTypes.cursor(ORACLE_TYPES_CURSOR, ColumnarResult.extractor(offHeap), fetchSize,
+                ColumnarResult::getRowCount);
+    }
+
+    /**
+     * OracleTypes.CURSOR read lazily as a stream. The value can be extracted only if the call is executed
+     * via {@link ResourceHandle}, the cursor, statement and connection stay open until the stream
+     * or the handle is closed.
+     */
+    public static <T> SqlType<Stream<T>> cursorStream(RowMapper<T> rowMapper) {
+        return cursorStream(rowMapper, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    public static <T> SqlType<Stream<T>> cursorStream(RowMapper<T> rowMapper, int fetchSize) {
+        return CursorTypes.cursorStream(ORACLE_TYPES_CURSOR, rowMapper, fetchSize);
+    }
+
+    /**
+     * OracleTypes.CURSOR streamed to the handler row by row without materializing,
+     * the value is the number of processed rows.
+     */
+    public static SqlType<Long> cursorCallback(RowCallbackHandler rowCallbackHandler) {
+        return cursorCallback(rowCallbackHandler, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    public static SqlType<Long> cursorCallback(RowCallbackHandler rowCallbackHandler, int fetchSize) {
+        return CursorTypes.cursorCallback(ORACLE_TYPES_CURSOR, rowCallbackHandler, fetchSize);
+    }
+
+    /**
+     * OracleTypes.CURSOR mapped and streamed to the consumer row by row without materializing,
+     * the value is the number of processed rows.
+     */
+    public static <T> SqlType<Long> cursorConsumer(RowMapper<T> rowMapper, Consumer<? super T> consumer) {
+        return cursorConsumer(rowMapper, consumer, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    public static <T> SqlType<Long> cursorConsumer(RowMapper<T> rowMapper, Consumer<? super T> consumer,
+                                                   int fetchSize) {
+        return CursorTypes.cursorConsumer(ORACLE_TYPES_CURSOR, rowMapper, consumer, fetchSize);
+    }
+
+    /**
+     * SYS.ODCINUMBERLIST, the list is bound as one parameter, e.g. for {@code where id in (select column_value
+     * from table(ids))}.
+     */
+    public static SqlType<List<Long>> numberList() {
+        return numberList(ODCI_NUMBER_LIST);
+    }
+
+    /**
+     * User-defined collection type of numbers, e.g. {@code create type number_tab as table of number}.
+     */
+    public static SqlType<List<Long>> numberList(String typeName) {
+        return ArrayTypes.array("numberList", typeName, oracleArray(typeName),
+                ArrayTypes::toLongArray, ArrayTypes::longList);
+    }
+
+    /**
+     * SYS.ODCINUMBERLIST as {@code long[]}, null elements are not supported.
+     */
+    public static SqlType<long[]> numberArray() {
+        return numberArray(ODCI_NUMBER_LIST);
+    }
+
+    public static SqlType<long[]> numberArray(String typeName) {
+        // the driver accepts primitive arrays for number collections
+        return ArrayTypes.array("numberArray", typeName, oracleArray(typeName),
+                array -> array, ArrayTypes::longArray);
+    }
+
+    /**
+     * SYS.ODCIVARCHAR2LIST (elements up to 4000 bytes)
+     */
+    public static SqlType<List<String>> varchar2List() {
+        return varchar2List(ODCI_VARCHAR2_LIST);
+    }
+
+    /**
+     * User-defined collection type of strings, e.g. {@code create type varchar2_tab as table of varchar2(100)}.
+     */
+    public static SqlType<List<String>> varchar2List(String typeName) {
+        return ArrayTypes.array("varchar2List", typeName, oracleArray(typeName),
+                ArrayTypes::toStringArray, ArrayTypes::stringList);
+    }
+
+    /**
+     * Oracle driver does not support {@link Connection#createArrayOf}, OracleConnection.createOracleArray is used.
+     */
+    private static ArrayTypes.ArrayFactory oracleArray(String typeName) {
+        requireNonNull(typeName, "typeName");
+        return (conn, elements) -> {
+            Method method = createOracleArray;
+            if (method == null || !conn.isWrapperFor(method.getDeclaringClass())) {
+                method = resolveCreateOracleArray(conn);
+                createOracleArray = method;
+            }
+            try {
+                return (Array) method.invoke(conn.unwrap(method.getDeclaringClass()), typeName, elements);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new IllegalStateException("Failed to create array " + typeName, e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Failed to create array " + typeName, e);
             }
-        });
+        };
+    }
+
+    private static Method resolveCreateOracleArray(Connection conn) throws SQLException {
+        // the driver class loader, may differ from the class loader of this library
+        ClassLoader classLoader = conn.unwrap(Connection.class).getClass().getClassLoader();
+        try {
+            Class<?> oracleConnection = Class.forName(ORACLE_CONNECTION, false, classLoader);
+            return oracleConnection.getMethod("createOracleArray", String.class, Object.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new SQLFeatureNotSupportedException("Oracle arrays require " + ORACLE_CONNECTION, e);
+        }
     }
 
     private OracleSqlTypes() {
@@ -0,0 +1,157 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Concurrent extraction of the cursor out parameters.
+ *
+ * @see NamedJdbcCall#parallelCursors(Executor)
+ */
+final class ParallelCursors {
+
+    private static final Log logger = LogFactory.getLog(ParallelCursors.class);
+
+    /**
+     * Extracts the values of out parameters. Not cursor parameters are extracted in the calling thread
+     * in the declared order, the cursors are obtained in the calling thread too and then are read concurrently.
+     * The values of all out parameters are set in the calling thread after all cursors are read.
+     */
+    static void afterExecute(CallableStatement cs, @Nullable AbstractOut<?> result, InOut<?>[] parameters,
+                             int offset, @Nullable ResourceHandle handle, Executor executor) throws SQLException {
+        List<PendingCursor<?>> cursors = new ArrayList<>();
+        try {
+            if (result != null) {
+                afterExecute(cs, 1, result, handle, cursors);
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                AbstractOut<?> out = parameters[i].out;
+                if (out != null) {
+                    afterExecute(cs, i + offset + 1, out, handle, cursors);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (PendingCursor<?> cursor : cursors) {
+                cursor.closeQuietly();
+            }
+            throw e;
+        }
+
+        int last = cursors.size() - 1;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(cursors.size());
+        Throwable failure = null;
+        int submitted = 0;
+        try {
+            for (; submitted < last; submitted++) {
+                PendingCursor<?> cursor = cursors.get(submitted);
+                futures.add(CompletableFuture.runAsync(cursor::extractUnchecked, executor));
+            }
+        } catch (RuntimeException e) {
+            // e.g. RejectedExecutionException, the cursors which are not submitted are not read
+            failure = e;
+            for (int i = submitted; i <= last; i++) {
+                cursors.get(i).closeQuietly();
+            }
+        }
+        if (failure == null && last >= 0) {
+            try {
+                cursors.get(last).extract();
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+            }
+        }
+        // wait all to not close the statement while the cursors are read
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+
+        for (PendingCursor<?> cursor : cursors) {
+            cursor.set();
+        }
+    }
+
+    private static <T> void afterExecute(CallableStatement cs, int idx, AbstractOut<T> out,
+                                         @Nullable ResourceHandle handle,
+                                         List<PendingCursor<?>> cursors) throws SQLException {
+        if (out.type.cursorExtractor == null) {
+            out.afterExecute(cs, idx, handle);
+        } else {
+            ResultSet rs = (ResultSet) cs.getObject(idx);
+            cursors.add(new PendingCursor<>(out, rs));
+        }
+    }
+
+    private static class PendingCursor<T> {
+
+        private final AbstractOut<T> out;
+        @Nullable
+        private final ResultSet rs;
+        private T value;
+
+        PendingCursor(AbstractOut<T> out, @Nullable ResultSet rs) {
+            this.out = out;
+            this.rs = rs;
+        }
+
+        void extract() throws SQLException {
+            if (rs != null) {
+                try (ResultSet rs = this.rs) {
+                    value = out.type.cursorExtractor.extractData(rs);
+                }
+            }
+        }
+
+        void extractUnchecked() {
+            try {
+                extract();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        void set() {
+            out.afterExecute(value);
+        }
+
+        void closeQuietly() {
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.debug("Failed to close cursor", e);
+                }
+            }
+        }
+    }
+
+    private ParallelCursors() {
+    }
+}
@@ -0,0 +1,284 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits the input records into partitions and executes {@link JdbcBulkCall} of each partition in parallel,
+ * each on its own connection of {@link AsyncCallExecutor}.
+ * <p>
+ * Usage example:
+ * <pre>
+ * try (AsyncCallExecutor async = AsyncCallExecutor.create(dataSource, 16)) {
+ *     PartitionedBulkExecutor.Result result = new PartitionedBulkExecutor(async)
+ *             .execute(accounts.iterator(), partition -&gt; bulkSql("{call settle(?, ?)}", partition,
+ *                             (row, account) -&gt; row.in(account.getId()).in(account.getDate()))
+ *                     .chunkSize(500)
+ *                     .commitEachChunk());
+ *     result.throwIfFailed();
+ * }
+ * </pre>
+ * The failure of one partition does not stop the others, the errors are collected to the {@link Result}.
+ * The partitions are executed out of the transaction of the calling thread, so usually each partition
+ * should commit its chunks (or the connections should be in auto-commit mode).
+ */
+public class PartitionedBulkExecutor {
+
+    private final AsyncCallExecutor executor;
+    private final int partitions;
+
+    /**
+     * @param partitions the number of partitions, should not exceed the concurrency of the executor
+     *                   to run all of them at the same time
+     */
+    public PartitionedBulkExecutor(AsyncCallExecutor executor, int partitions) {
+        Assert.isTrue(partitions > 0, "partitions should be positive");
+        this.executor = requireNonNull(executor, "executor");
+        this.partitions = partitions;
+    }
+
+    /**
+     * Uses the partition per each concurrent call of the executor.
+     */
+    public PartitionedBulkExecutor(AsyncCallExecutor executor) {
+        this(executor, executor.getConcurrency());
+    }
+
+    /**
+     * The partitions read the records from the shared iterator, so the faster partitions execute more records.
+     * The iterator is accessed under the lock and does not need to be thread-safe.
+     */
+    public <R> Result execute(Iterator<? extends R> records, Function<Iterator<R>, JdbcBulkCall<R>> callFactory) {
+        SharedIterator<R> shared = new SharedIterator<>(requireNonNull(records, "records"));
+        List<Iterator<R>> iterators = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            iterators.add(shared.partition());
+        }
+        return executePartitions(iterators, callFactory);
+    }
+
+    /**
+     * The stream is closed after the execution, see {@link #execute(Iterator, Function)}.
+     */
+    public <R> Result execute(Stream<? extends R> records, Function<Iterator<R>, JdbcBulkCall<R>> callFactory) {
+        try (Stream<? extends R> stream = records) {
+            return execute(stream.iterator(), callFactory);
+        }
+    }
+
+    /**
+     * The records with the equal keys are executed in the same partition in the original order,
+     * e.g. to avoid the lock contention of the rows of the same account.
+     */
+    public <R> Result execute(List<? extends R> records, Function<? super R, ?> partitionKey,
+                              Function<Iterator<R>, JdbcBulkCall<R>> callFactory) {
+        int[] sizes = new int[partitions];
+        int[] recordPartitions = new int[records.size()];
+        for (int i = 0; i < recordPartitions.length; i++) {
+            int partition = partitionOf(partitionKey.apply(records.get(i)));
+            recordPartitions[i] = partition;
+            sizes[partition]++;
+        }
+        int[][] indexes = new int[partitions][];
+        for (int partition = 0; partition < partitions; partition++) {
+            indexes[partition] = new int[sizes[partition]];
+            sizes[partition] = 0;
+        }
+        for (int i = 0; i < recordPartitions.length; i++) {
+            int partition = recordPartitions[i];
+            indexes[partition][sizes[partition]++] = i;
+        }
+        List<Iterator<R>> iterators = new ArrayList<>(partitions);
+        for (int[] partitionIndexes : indexes) {
+            if (partitionIndexes.length > 0) {
+                iterators.add(new IndexIterator<>(records, partitionIndexes));
+            }
+        }
+        return executePartitions(iterators, callFactory);
+    }
+
+    /**
+     * The keys are partitioned by {@link Object#hashCode()}, the high bits are spread like in {@link java.util.HashMap}.
+     */
+    private int partitionOf(@Nullable Object key) {
+        int h = Objects.hashCode(key);
+        return Math.floorMod(h ^ (h >>> 16), partitions);
+    }
+
+    private <R> Result executePartitions(List<Iterator<R>> iterators,
+                                         Function<Iterator<R>, JdbcBulkCall<R>> callFactory) {
+        List<CompletableFuture<JdbcBulkCall.Result>> futures = new ArrayList<>(iterators.size());
+        for (Iterator<R> iterator : iterators) {
+            futures.add(executor.execute(callFactory.apply(iterator)));
+        }
+        Result result = new Result();
+        for (CompletableFuture<JdbcBulkCall.Result> future : futures) {
+            try {
+                result.add(future.join());
+            } catch (CompletionException e) {
+                result.errors.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        return result;
+    }
+
+    private static final class SharedIterator<R> {
+
+        private final Iterator<? extends R> records;
+
+        private SharedIterator(Iterator<? extends R> records) {
+            this.records = records;
+        }
+
+        private Iterator<R> partition() {
+            return new Iterator<R>() {
+                private boolean fetched;
+                @Nullable
+                private R next;
+
+                @Override
+                public boolean hasNext() {
+                    if (!fetched) {
+                        synchronized (records) {
+                            if (records.hasNext()) {
+                                next = records.next();
+                                fetched = true;
+                            }
+                        }
+                    }
+                    return fetched;
+                }
+
+                @Override
+                public R next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    R record = next;
+                    next = null;
+                    fetched = false;
+                    return record;
+                }
+            };
+        }
+    }
+
+    private static final class IndexIterator<R> implements Iterator<R> {
+
+        private final List<? extends R> records;
+        private final int[] indexes;
+        private int position;
+
+        private IndexIterator(List<? extends R> records, int[] indexes) {
+            this.records = records;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < indexes.length;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return records.get(indexes[position++]);
+        }
+    }
+
+    /**
+     * The combined counts and the errors of the partitions.
+     */
+    public static final class Result {
+
+        private final List<JdbcBulkCall.Result> partitions = new ArrayList<>();
+        private final List<Throwable> errors = new ArrayList<>();
+        private long rowCount;
+        private long failedCount;
+        private long updateCount;
+
+        private Result() {
+        }
+
+        private void add(JdbcBulkCall.Result partition) {
+            partitions.add(partition);
+            rowCount += partition.getRowCount();
+            failedCount += partition.getFailedCount();
+            updateCount += partition.getUpdateCount();
+        }
+
+        /**
+         * @return the results of the completed partitions
+         */
+        public List<JdbcBulkCall.Result> getPartitions() {
+            return Collections.unmodifiableList(partitions);
+        }
+
+        /**
+         * @return the exceptions of the failed partitions, usually {@link org.springframework.dao.DataAccessException}
+         */
+        public List<Throwable> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        public boolean isSuccess() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * Throws the error of the first failed partition with the others as suppressed.
+         */
+        public Result throwIfFailed() {
+            if (!errors.isEmpty()) {
+                Throwable error = errors.get(0);
+                for (int i = 1; i < errors.size(); i++) {
+                    error.addSuppressed(errors.get(i));
+                }
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                }
+                if (error instanceof Error) {
+                    throw (Error) error;
+                }
+                throw new IllegalStateException(error);
+            }
+            return this;
+        }
+
+        /**
+         * @return the number of executed rows of the completed partitions including the failed rows
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public long getUpdateCount() {
+            return updateCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{partitions=" + partitions.size() + ", errors=" + errors.size() + ", rows=" + rowCount
+                    + ", failed=" + failedCount + ", updates=" + updateCount + "}";
+        }
+    }
+}
@@ -1,26 +1,106 @@
 package org.morejdbc;
 
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.RowMapperResultSetExtractor;
 
-import java.sql.ResultSet;
 import java.sql.Types;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * http://www.sqlines.com/postgresql/how-to/return_result_set_from_stored_procedure
+ * <p>
+ * Note: refcursor out works only in transaction.
+ * <p>
+ * The driver reads the refcursor OUT value with {@code FETCH ALL}, so all the rows of the cursor are
+ * fetched into memory during the execution, the fetch size of the cursor ResultSet has no effect.
+ * The callback and consumer types only avoid the list of the mapped rows.
  */
 public class PostgresSqlTypes {
 
     public static <T> SqlType<List<T>> cursor(RowMapper<T> rowMapper) {
+        return CursorTypes.cursor(Types.REF_CURSOR, new RowMapperResultSetExtractor<>(rowMapper),
+                CursorTypes.DEFAULT_FETCH_SIZE, List::size);
+    }
+
+    /**
+     * Cursor processed by the extractor, the value is the extractor result.
+     */
+    public static <R> SqlType<R> cursorExtractor(ResultSetExtractor<R> extractor) {
         // maybe Types.OTHER
-        return SqlType.of("cursor", Types.REF_CURSOR, null, (cs, idx) -> {
-            try (ResultSet rs = (ResultSet) cs.getObject(idx)) {
-                ResultSetExtractor<List<T>> extractor = new RowMapperResultSetExtractor<>(rowMapper);
-                return extractor.extractData(rs);
-            }
-        });
+        return CursorTypes.cursor(Types.REF_CURSOR, extractor, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Cursor extracted column by column into the primitive arrays, see {@link ColumnarResult}.
+     */
+    public static SqlType<ColumnarResult> cursorColumnar() {
+        return cursorColumnar(false);
+    }
+
+    /**
+     * @param offHeap store the numeric columns out of the java heap
+     */
+    public static SqlType<ColumnarResult> cursorColumnar(boolean offHeap) {
+        return CursorTypes.cursor(Types.REF_CURSOR, ColumnarResult.extractor(offHeap), CursorTypes.DEFAULT_FETCH_SIZE,
+                ColumnarResult::getRowCount);
+    }
+
+    /**
+     * Cursor mapped lazily as a stream. The value can be extracted only if the call is executed
+     * via {@link ResourceHandle}, the cursor, statement and connection stay open until the stream
+     * or the handle is closed.
+     * <p>
+     * Only the mapping is lazy: the rows are fetched by the driver during the execution (see the class doc),
+     * so unlike {@link OracleSqlTypes#cursorStream} the stream does not reduce the memory use.
+     * The type is kept for the same API of the databases, prefer {@link #cursorConsumer} which does not hold
+     * the connection.
+     */
+    public static <T> SqlType<Stream<T>> cursorStream(RowMapper<T> rowMapper) {
+        return CursorTypes.cursorStream(Types.REF_CURSOR, rowMapper, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Cursor passed to the handler row by row, the value is the number of processed rows.
+     * The rows are fetched by the driver before, see the class doc.
+     */
+    public static SqlType<Long> cursorCallback(RowCallbackHandler rowCallbackHandler) {
+        return CursorTypes.cursorCallback(Types.REF_CURSOR, rowCallbackHandler, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Cursor mapped and passed to the consumer row by row, the mapped rows are not collected,
+     * the value is the number of processed rows. The rows are fetched by the driver before, see the class doc.
+     */
+    public static <T> SqlType<Long> cursorConsumer(RowMapper<T> rowMapper, Consumer<? super T> consumer) {
+        return CursorTypes.cursorConsumer(Types.REF_CURSOR, rowMapper, consumer, CursorTypes.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * int8[], the list is bound as one parameter, e.g. for {@code where id = any(?)}.
+     */
+    public static SqlType<List<Long>> int8List() {
+        return ArrayTypes.array("int8List", null, (conn, elements) -> conn.createArrayOf("int8", (Object[]) elements),
+                ArrayTypes::toLongArray, ArrayTypes::longList);
+    }
+
+    /**
+     * int8[] as {@code long[]}, null elements are not supported.
+     */
+    public static SqlType<long[]> int8Array() {
+        return ArrayTypes.array("int8Array", null, (conn, elements) -> conn.createArrayOf("int8", (Object[]) elements),
+                ArrayTypes::toLongArray, ArrayTypes::longArray);
+    }
+
+    /**
+     * text[]
+     */
+    public static SqlType<List<String>> textList() {
+        return ArrayTypes.array("textList", null, (conn, elements) -> conn.createArrayOf("text", (Object[]) elements),
+                ArrayTypes::toStringArray, ArrayTypes::stringList);
     }
 
     private PostgresSqlTypes() {
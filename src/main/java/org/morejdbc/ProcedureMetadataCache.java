@@ -0,0 +1,338 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.util.Assert;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of the procedure and function signatures read via {@link DatabaseMetaData#getProcedureColumns}.
+ * All the signatures of the schema are loaded in one query on the first call and reloaded after the ttl.
+ * The schema is loaded by one thread at a time, the concurrent calls use the expired signatures
+ * during the reload if any.
+ * <p>
+ * The calls with the cache (see {@link NamedJdbcCall#metadataCache(ProcedureMetadataCache)}) are checked before
+ * the execution: the unknown parameter names and the OUT bindings of IN parameters (and vice versa) fail
+ * with {@link IllegalArgumentException} without the round trip to the database. The values bound with
+ * {@link NamedJdbcCall#inObject(String, Object)} get the declared sql type.
+ * <p>
+ * The cache is thread-safe, one instance should be used per database.
+ */
+public class ProcedureMetadataCache {
+
+    private static final Log logger = LogFactory.getLog(ProcedureMetadataCache.class);
+
+    private final long ttlNanos;
+    private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> loadLocks = new ConcurrentHashMap<>();
+    private boolean ignoreUnknown;
+
+    public ProcedureMetadataCache(long ttl, TimeUnit unit) {
+        Assert.isTrue(ttl > 0, "ttl should be positive");
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Do not fail the calls of the procedures which are not found in the schema of the connection,
+     * e.g. called via synonyms. By default only the qualified names (with dots) are not checked if unknown.
+     */
+    public ProcedureMetadataCache ignoreUnknown() {
+        this.ignoreUnknown = true;
+        return this;
+    }
+
+    /**
+     * Evict all the signatures, they are loaded again on the next call.
+     */
+    public void invalidate() {
+        schemas.clear();
+    }
+
+    /**
+     * @return the overloads of the procedure or function in the schema of the connection, empty if unknown
+     */
+    public List<Procedure> getProcedures(Connection conn, String name) throws SQLException {
+        List<Procedure> procedures = getSchema(conn).procedures.get(name.toLowerCase(Locale.ROOT));
+        return procedures == null ? Collections.emptyList() : procedures;
+    }
+
+    /**
+     * Checks the parameters of the call and resolves the types of the values bound without the type.
+     *
+     * @return the parameters or the copy with resolved types
+     */
+    InOut<?>[] check(Connection conn, String name, boolean function, String[] parameterNames,
+                     InOut<?>[] parameters) throws SQLException {
+        List<Procedure> procedures = getProcedures(conn, name);
+        if (procedures.isEmpty()) {
+            if (ignoreUnknown || name.indexOf('.') >= 0) {
+                return parameters;
+            }
+            throw new IllegalArgumentException((function ? "Function " : "Procedure ") + name
+                    + " is not found in " + getSchemaKey(conn));
+        }
+        String error = null;
+        for (Procedure procedure : procedures) {
+            String mismatch = procedure.mismatch(function, parameterNames, parameters);
+            if (mismatch == null) {
+                return procedure.resolve(parameterNames, parameters);
+            }
+            if (error == null) {
+                error = mismatch;
+            }
+        }
+        throw new IllegalArgumentException(error);
+    }
+
+    private Schema getSchema(Connection conn) throws SQLException {
+        String key = getSchemaKey(conn);
+        Schema schema = schemas.get(key);
+        if (schema != null && !isExpired(schema)) {
+            return schema;
+        }
+        ReentrantLock lock = loadLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        if (schema != null) {
+            if (!lock.tryLock()) {
+                // being reloaded by another thread
+                return schema;
+            }
+        } else {
+            lock.lock();
+        }
+        try {
+            schema = schemas.get(key);
+            if (schema == null || isExpired(schema)) {
+                schema = load(conn, System.nanoTime());
+                schemas.put(key, schema);
+            }
+            return schema;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(Schema schema) {
+        return System.nanoTime() - schema.loadedAt > ttlNanos;
+    }
+
+    private static String getSchemaKey(Connection conn) throws SQLException {
+        return conn.getCatalog() + "." + conn.getSchema();
+    }
+
+    private static Schema load(Connection conn, long loadedAt) throws SQLException {
+        Map<String, Procedure> bySpecificName = new LinkedHashMap<>();
+        try (ResultSet rs = conn.getMetaData().getProcedureColumns(conn.getCatalog(), conn.getSchema(), "%", "%")) {
+            String specificColumn = findColumn(rs.getMetaData(), "SPECIFIC_NAME", "OVERLOAD");
+            while (rs.next()) {
+                String catalog = rs.getString("PROCEDURE_CAT");
+                String name = rs.getString("PROCEDURE_NAME");
+                String specificName = catalog + "." + name + "."
+                        + (specificColumn == null ? "" : rs.getString(specificColumn));
+                Procedure procedure = bySpecificName.computeIfAbsent(specificName,
+                        k -> new Procedure(catalog, name));
+                procedure.addColumn(rs.getString("COLUMN_NAME"), rs.getInt("COLUMN_TYPE"),
+                        rs.getInt("DATA_TYPE"), rs.getString("TYPE_NAME"));
+            }
+        }
+        Map<String, List<Procedure>> procedures = new HashMap<>();
+        for (Procedure procedure : bySpecificName.values()) {
+            procedures.computeIfAbsent(procedure.name.toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                    .add(procedure);
+            if (procedure.catalog != null) {
+                procedures.computeIfAbsent((procedure.catalog + "." + procedure.name).toLowerCase(Locale.ROOT),
+                        k -> new ArrayList<>()).add(procedure);
+            }
+        }
+        logger.debug("Loaded " + bySpecificName.size() + " procedures of " + getSchemaKey(conn));
+        return new Schema(loadedAt, procedures);
+    }
+
+    @Nullable
+    private static String findColumn(ResultSetMetaData metaData, String... columnNames) throws SQLException {
+        for (String columnName : columnNames) {
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (columnName.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    return columnName;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class Schema {
+
+        private final long loadedAt;
+        private final Map<String, List<Procedure>> procedures;
+
+        private Schema(long loadedAt, Map<String, List<Procedure>> procedures) {
+            this.loadedAt = loadedAt;
+            this.procedures = procedures;
+        }
+    }
+
+    /**
+     * The signature of the procedure or function.
+     */
+    public static final class Procedure {
+
+        @Nullable
+        private final String catalog;
+        private final String name;
+        private final Map<String, Parameter> parameters = new LinkedHashMap<>();
+        private boolean function;
+
+        private Procedure(@Nullable String catalog, String name) {
+            this.catalog = catalog;
+            this.name = name;
+        }
+
+        private void addColumn(@Nullable String columnName, int columnType, int dataType, String typeName) {
+            if (columnType == DatabaseMetaData.procedureColumnReturn) {
+                function = true;
+            } else if (columnName != null && (columnType == DatabaseMetaData.procedureColumnIn
+                    || columnType == DatabaseMetaData.procedureColumnInOut
+                    || columnType == DatabaseMetaData.procedureColumnOut)) {
+                parameters.put(columnName.toLowerCase(Locale.ROOT),
+                        new Parameter(columnName, columnType, dataType, typeName));
+            }
+        }
+
+        /**
+         * @return the package (Oracle) or database (MySQL) name, if any
+         */
+        @Nullable
+        public String getCatalog() {
+            return catalog;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isFunction() {
+            return function;
+        }
+
+        @Nullable
+        public Parameter getParameter(String name) {
+            return parameters.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        public List<Parameter> getParameters() {
+            return Collections.unmodifiableList(new ArrayList<>(parameters.values()));
+        }
+
+        @Nullable
+        private String mismatch(boolean function, String[] parameterNames, InOut<?>[] parameters) {
+            if (function && !this.function) {
+                return name + " is a procedure, but called as function";
+            }
+            for (int i = 0; i < parameterNames.length; i++) {
+                Parameter declared = getParameter(parameterNames[i]);
+                if (declared == null) {
+                    return "Parameter " + parameterNames[i] + " is not declared by " + name
+                            + ", declared: " + this.parameters.values();
+                }
+                if (parameters[i].out != null && !declared.isOut()) {
+                    return "Parameter " + parameterNames[i] + " of " + name + " is IN, but bound as OUT";
+                }
+                if (parameters[i].out == null && !declared.isIn()) {
+                    return "Parameter " + parameterNames[i] + " of " + name + " is OUT, but bound as IN";
+                }
+            }
+            return null;
+        }
+
+        private InOut<?>[] resolve(String[] parameterNames, InOut<?>[] parameters) {
+            InOut<?>[] resolved = parameters;
+            for (int i = 0; i < parameters.length; i++) {
+                In<?> in = parameters[i].in;
+                if (in != null && in.getType().getSqlType() == SqlTypeValue.TYPE_UNKNOWN) {
+                    if (resolved == parameters) {
+                        resolved = parameters.clone();
+                    }
+                    int sqlType = getParameter(parameterNames[i]).getSqlType();
+                    resolved[i] = withIn(parameters[i], In.of(in.getValue(), SqlTypes.object(sqlType)));
+                }
+            }
+            return resolved;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static InOut<?> withIn(InOut<?> parameter, In<Object> in) {
+            if (parameter instanceof NamedJdbcCall.NamedParameter) {
+                return new NamedJdbcCall.NamedParameter<>(((NamedJdbcCall.NamedParameter<?>) parameter).getName(),
+                        in, (AbstractOut<Object>) parameter.out);
+            }
+            return new InOut<>(in, (AbstractOut<Object>) parameter.out);
+        }
+
+        @Override
+        public String toString() {
+            return (catalog == null ? "" : catalog + ".") + name + parameters.values();
+        }
+    }
+
+    public static final class Parameter {
+
+        private final String name;
+        private final int columnType;
+        private final int sqlType;
+        private final String typeName;
+
+        private Parameter(String name, int columnType, int sqlType, String typeName) {
+            this.name = name;
+            this.columnType = columnType;
+            this.sqlType = sqlType;
+            this.typeName = typeName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isIn() {
+            return columnType != DatabaseMetaData.procedureColumnOut;
+        }
+
+        public boolean isOut() {
+            return columnType != DatabaseMetaData.procedureColumnIn;
+        }
+
+        /**
+         * @return the declared type, see {@link java.sql.Types}
+         */
+        public int getSqlType() {
+            return sqlType;
+        }
+
+        /**
+         * @return the database-specific type name
+         */
+        public String getTypeName() {
+            return typeName;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + (isIn() ? (isOut() ? "INOUT " : "IN ") : "OUT ") + typeName;
+        }
+    }
+}
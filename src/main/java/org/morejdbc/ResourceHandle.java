@@ -0,0 +1,133 @@
+package org.morejdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the connection, statements and cursors of the calls open until the handle is closed.
+ * Required for the lazy cursor streams ({@link OracleSqlTypes#cursorStream}, {@link PostgresSqlTypes#cursorStream}),
+ * closing of any such stream closes the handle.
+ * <p>
+ * Usage example:
+ * <pre>
+ * Out&lt;Stream&lt;Row&gt;&gt; rows = Out.of(cursorStream(rowMapper));
+ * ResourceHandle handle = ResourceHandle.open(dataSource);
+ * handle.execute(call("get_report")
+ *         .in("report_date", reportDate)
+ *         .out("v_cur", rows));
+ * try (Stream&lt;Row&gt; stream = rows.get()) {
+ *     stream.forEach(...);
+ * }
+ * </pre>
+ * The connection is obtained via {@link DataSourceUtils}, so it participates in the current transaction if any.
+ * The handle is not thread-safe.
+ */
+public final class ResourceHandle implements AutoCloseable {
+
+    private static final Log logger = LogFactory.getLog(ResourceHandle.class);
+
+    private final Connection connection;
+    private final SQLExceptionTranslator exceptionTranslator;
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+    private boolean closed;
+
+    private ResourceHandle(DataSource dataSource) {
+        this.connection = DataSourceUtils.getConnection(dataSource);
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.resources.push(() -> DataSourceUtils.releaseConnection(connection, dataSource));
+    }
+
+    public static ResourceHandle open(DataSource dataSource) {
+        return new ResourceHandle(requireNonNull(dataSource, "dataSource"));
+    }
+
+    /**
+     * Executes the call on the connection of the handle. The statement of {@link JdbcCall}, {@link NamedJdbcCall}
+     * and {@link NamedCallTemplate.Invocation} stays open until the handle is closed.
+     * The handle is closed if the call fails.
+     */
+    public <T> T execute(ConnectionCallback<T> call) throws DataAccessException {
+        Assert.state(!closed, "ResourceHandle is closed");
+        try {
+            if (call instanceof JdbcCall) {
+                @SuppressWarnings("unchecked")
+                T result = (T) ((JdbcCall) call).doInConnection(connection, this);
+                return result;
+            } else if (call instanceof NamedJdbcCall) {
+                return ((NamedJdbcCall<T>) call).doInConnection(connection, this);
+            } else if (call instanceof NamedCallTemplate.Invocation) {
+                return ((NamedCallTemplate.Invocation<T>) call).doInConnection(connection, this);
+            } else {
+                return call.doInConnection(connection);
+            }
+        } catch (SQLException e) {
+            close();
+            String sql = call instanceof SqlProvider ? ((SqlProvider) call).getSql() : null;
+            DataAccessException dae = exceptionTranslator.translate("ResourceHandle", sql, e);
+            throw dae != null ? dae : new DataAccessResourceFailureException("Failed to execute " + sql, e);
+        } catch (RuntimeException | Error e) {
+            close();
+            throw e;
+        }
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Registers the resource to be closed with the handle, the resources are closed in reverse order.
+     */
+    void register(AutoCloseable resource) {
+        Assert.state(!closed, "ResourceHandle is closed");
+        resources.push(requireNonNull(resource, "resource"));
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the cursors, statements and releases the connection. Repeated calls are ignored.
+     */
+    @Override
+    public void close() throws DataAccessException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Exception failure = null;
+        AutoCloseable resource;
+        while ((resource = resources.poll()) != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            logger.debug("Failed to close resources", failure);
+            throw new DataAccessResourceFailureException("Failed to close resources", failure);
+        }
+    }
+}
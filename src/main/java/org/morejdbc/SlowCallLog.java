@@ -0,0 +1,254 @@
+package org.morejdbc;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link CallListener} which records the calls slower than the threshold and optionally the sampled fraction
+ * of other calls. The records keep the sql, parameter types and values (see {@link #redactor(Redactor)}).
+ * The recent records are kept in the bounded lock-free ring buffer and can be obtained via {@link #dump()},
+ * the slot is never overwritten by the older record.
+ * <p>
+ * The fast calls are not rendered, so the cost of not recorded call is the comparison with the threshold.
+ * <p>
+ * Usage example:
+ * <pre>
+ * SlowCallLog slowCalls = new SlowCallLog(100, TimeUnit.MILLISECONDS, 256)
+ *         .sampleRate(0.001)
+ *         .redactor(SlowCallLog.redactNames("password"));
+ * NamedCallTemplate&lt;Void&gt; template = NamedCallTemplate.procedure("login", "username", "password")
+ *         .withListener(slowCalls);
+ * ...
+ * slowCalls.dump().forEach(System.out::println);
+ * </pre>
+ * The configuration methods should be invoked before the log is used by the calls.
+ */
+public class SlowCallLog implements CallListener {
+
+    private static final String REDACTED = "***";
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private double sampleRate;
+    private Redactor redactor = CallEvent.Parameter::getValue;
+
+    /**
+     * @param capacity the max number of recent records, rounded up to the power of two
+     */
+    public SlowCallLog(long threshold, TimeUnit unit, int capacity) {
+        Assert.isTrue(threshold >= 0, "threshold should not be negative");
+        Assert.isTrue(capacity > 0 && capacity <= 1 << 30, "capacity should be positive");
+        this.thresholdNanos = unit.toNanos(threshold);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Record also the fraction of the calls faster than the threshold, 0 by default.
+     */
+    public SlowCallLog sampleRate(double sampleRate) {
+        Assert.isTrue(sampleRate >= 0.0 && sampleRate <= 1.0, "sampleRate should be in [0, 1]");
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    /**
+     * Replace the IN values of the records, e.g. to hide the personal data.
+     */
+    public SlowCallLog redactor(Redactor redactor) {
+        this.redactor = requireNonNull(redactor, "redactor");
+        return this;
+    }
+
+    /**
+     * @return redactor which hides the values of the named parameters
+     */
+    public static Redactor redactNames(String... names) {
+        Set<String> redacted = new HashSet<>(Arrays.asList(names));
+        return parameter -> redacted.contains(parameter.getName()) ? REDACTED : parameter.getValue();
+    }
+
+    @Override
+    public void onCall(CallEvent event) {
+        boolean slow = event.getTotalNanos() >= thresholdNanos;
+        if (!slow && (sampleRate == 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        long seq = sequence.getAndIncrement();
+        Entry entry = new Entry(seq, System.currentTimeMillis(), event, !slow, renderParameters(event));
+        int idx = (int) (seq & mask);
+        Entry current;
+        do {
+            current = entries.get(idx);
+            if (current != null && current.sequence > seq) {
+                // the slot is already reused by the newer record
+                return;
+            }
+        } while (!entries.compareAndSet(idx, current, entry));
+    }
+
+    private String renderParameters(CallEvent event) {
+        StringBuilder sb = new StringBuilder("[");
+        for (CallEvent.Parameter parameter : event.getParameters()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            String name = parameter.getName();
+            sb.append(name != null ? name : String.valueOf(parameter.getIndex()))
+                    .append(' ').append(parameter.isIn() ? (parameter.isOut() ? "INOUT" : "IN") : "OUT")
+                    .append(' ').append(parameter.getTypeName());
+            if (parameter.isIn()) {
+                sb.append('=').append(redactor.redact(parameter));
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * @return the recent records from the oldest to the newest
+     */
+    public List<Entry> dump() {
+        List<Entry> list = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            Entry entry = entries.get(i);
+            if (entry != null) {
+                list.add(entry);
+            }
+        }
+        list.sort(Comparator.comparingLong(entry -> entry.sequence));
+        return list;
+    }
+
+    /**
+     * @return the number of records since the creation including the overwritten ones
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Redactor {
+        /**
+         * @return the value to record instead of {@link CallEvent.Parameter#getValue()}
+         */
+        @Nullable
+        Object redact(CallEvent.Parameter parameter);
+    }
+
+    public static final class Entry {
+
+        private final long sequence;
+        private final long timestamp;
+        @Nullable
+        private final String name;
+        private final String sql;
+        private final String parameters;
+        private final long totalNanos;
+        private final long executeNanos;
+        private final long extractNanos;
+        private final long cursorRows;
+        @Nullable
+        private final String error;
+        private final boolean sampled;
+
+        private Entry(long sequence, long timestamp, CallEvent event, boolean sampled, String parameters) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.name = event.getName();
+            this.sql = event.getSql();
+            this.parameters = parameters;
+            this.totalNanos = event.getTotalNanos();
+            this.executeNanos = event.getExecuteNanos();
+            this.extractNanos = event.getExtractNanos();
+            this.cursorRows = event.getCursorRows();
+            this.error = event.getError() != null ? event.getError().getClass().getName() : null;
+            this.sampled = sampled;
+        }
+
+        /**
+         * @return the time of the record, see {@link System#currentTimeMillis()}
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Nullable
+        public String getName() {
+            return name;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return the rendered parameters with the redacted IN values
+         */
+        public String getParameters() {
+            return parameters;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getExecuteNanos() {
+            return executeNanos;
+        }
+
+        public long getExtractNanos() {
+            return extractNanos;
+        }
+
+        public long getCursorRows() {
+            return cursorRows;
+        }
+
+        @Nullable
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return true if the call is faster than the threshold and was recorded by sampling
+         */
+        public boolean isSampled() {
+            return sampled;
+        }
+
+        @Override
+        public String toString() {
+            return (sampled ? "sampled " : "slow ") + TimeUnit.NANOSECONDS.toMillis(totalNanos) + "ms" +
+                    " (execute " + TimeUnit.NANOSECONDS.toMillis(executeNanos) + "ms" +
+                    ", extract " + TimeUnit.NANOSECONDS.toMillis(extractNanos) + "ms)" +
+                    (cursorRows >= 0 ? " rows=" + cursorRows : "") +
+                    (error != null ? " error=" + error : "") +
+                    " " + sql + " " + parameters;
+        }
+    }
+}
@@ -1,28 +1,68 @@
 package org.morejdbc;
 
 import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.ResultSetExtractor;
 
 import java.sql.CallableStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
 
 public class SqlType<T> {
 
     private final String printName;
     private final int sqlType;
+    /**
+     * SQL type name of the user-defined types, e.g. the collection type of {@link java.sql.Types#ARRAY}.
+     */
+    @Nullable
+    private final String typeName;
     /**
      * Setter can be null for read-only types.
      */
     @Nullable
-    final CallableStatementSetter<T> setter;
+    final ResourceSetter<T> setter;
+    @Nullable
     private final CallableStatementExtractor<T> extractor;
+    /**
+     * Extractor of the value which keeps the statement open, e.g. lazy cursor stream.
+     */
+    @Nullable
+    private final ResourceHandleExtractor<T> handleExtractor;
+    /**
+     * Not null for cursor types: extractor of the value from the cursor ResultSet.
+     */
+    @Nullable
+    final ResultSetExtractor<T> cursorExtractor;
+    /**
+     * Number of the cursor rows by the value, if known.
+     */
+    @Nullable
+    private final ToLongFunction<T> rowCount;
+    /**
+     * True if the extractor passes the value to the callback of the caller.
+     */
+    private final boolean callback;
 
-    private SqlType(String printName, int sqlType, @Nullable CallableStatementSetter<T> setter,
-                    CallableStatementExtractor<T> extractor) {
+    private SqlType(String printName, int sqlType, @Nullable String typeName,
+                    @Nullable ResourceSetter<T> setter,
+                    @Nullable CallableStatementExtractor<T> extractor,
+                    @Nullable ResourceHandleExtractor<T> handleExtractor,
+                    @Nullable ResultSetExtractor<T> cursorExtractor,
+                    @Nullable ToLongFunction<T> rowCount,
+                    boolean callback) {
         this.printName = printName;
         this.sqlType = sqlType;
+        this.typeName = typeName;
         this.setter = setter;
         this.extractor = extractor;
+        this.handleExtractor = handleExtractor;
+        this.cursorExtractor = cursorExtractor;
+        this.rowCount = rowCount;
+        this.callback = callback;
     }
 
     @Override
@@ -35,17 +75,83 @@ public class SqlType<T> {
         }
         SqlType<?> that = (SqlType<?>) o;
         return sqlType == that.sqlType &&
-                printName.equals(that.printName);
+                printName.equals(that.printName) &&
+                Objects.equals(typeName, that.typeName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(printName, sqlType);
+        return Objects.hash(printName, sqlType, typeName);
     }
 
+    /**
+     * @param setter    null for read-only types
+     * @param extractor null for write-only types, e.g. the streams
+     */
     static <T> SqlType<T> of(String printName, int sqlType, @Nullable CallableStatementSetter<T> setter,
+                             @Nullable CallableStatementExtractor<T> extractor) {
+        return new SqlType<>(printName, sqlType, null, resourceSetter(setter), extractor, null, null, null, false);
+    }
+
+    /**
+     * User-defined type, the out parameter is registered with the type name.
+     */
+    static <T> SqlType<T> of(String printName, int sqlType, String typeName, CallableStatementSetter<T> setter,
                              CallableStatementExtractor<T> extractor) {
-        return new SqlType<>(printName, sqlType, setter, extractor);
+        return new SqlType<>(printName, sqlType, requireNonNull(typeName, "typeName"), resourceSetter(setter),
+                extractor, null, null, null, false);
+    }
+
+    /**
+     * Type which setter creates the resource (e.g. {@link java.sql.Array}) released after the execution.
+     *
+     * @param typeName if not null, the out parameter is registered with the type name
+     */
+    static <T> SqlType<T> ofResource(String printName, int sqlType, @Nullable String typeName,
+                                     ResourceSetter<T> setter, @Nullable CallableStatementExtractor<T> extractor) {
+        return new SqlType<>(printName, sqlType, typeName, requireNonNull(setter, "setter"), extractor,
+                null, null, null, false);
+    }
+
+    @Nullable
+    private static <T> ResourceSetter<T> resourceSetter(@Nullable CallableStatementSetter<T> setter) {
+        if (setter == null) {
+            return null;
+        }
+        return (cs, idx, sqlType, value) -> {
+            setter.setValue(cs, idx, sqlType, value);
+            return null;
+        };
+    }
+
+    /**
+     * Read-only type, which value can be extracted only in scope of {@link ResourceHandle}.
+     */
+    static <T> SqlType<T> ofHandle(String printName, int sqlType, ResourceHandleExtractor<T> handleExtractor) {
+        return new SqlType<>(printName, sqlType, null, null, null, handleExtractor, null, null, false);
+    }
+
+    /**
+     * Read-only cursor type, the value is extracted from the ResultSet of {@link CallableStatement#getObject(int)}.
+     *
+     * @param callback true if the extractor passes the rows to the callback of the caller
+     */
+    static <T> SqlType<T> ofCursor(String printName, int sqlType, ResultSetExtractor<T> cursorExtractor,
+                                   @Nullable ToLongFunction<T> rowCount, boolean callback) {
+        CallableStatementExtractor<T> extractor = (cs, idx) -> {
+            try (ResultSet rs = (ResultSet) cs.getObject(idx)) {
+                return rs == null ? null : cursorExtractor.extractData(rs);
+            }
+        };
+        return new SqlType<>(printName, sqlType, null, null, extractor, null, cursorExtractor, rowCount, callback);
+    }
+
+    /**
+     * Read-only type which extractor passes the value to the callback of the caller.
+     */
+    static <T> SqlType<T> ofCallback(String printName, int sqlType, CallableStatementExtractor<T> extractor) {
+        return new SqlType<>(printName, sqlType, null, null, requireNonNull(extractor, "extractor"),
+                null, null, null, true);
     }
 
     String getPrintName() {
@@ -56,25 +162,85 @@ public class SqlType<T> {
         return sqlType;
     }
 
+    /**
+     * @return the number of the cursor rows or -1 if unknown
+     */
+    long getRowCount(@Nullable T value) {
+        return rowCount == null || value == null ? -1 : rowCount.applyAsLong(value);
+    }
+
+    /**
+     * @return true if the value can be extracted only in scope of {@link ResourceHandle}
+     */
+    boolean requiresHandle() {
+        return handleExtractor != null;
+    }
+
+    /**
+     * @return false if the extracted value cannot be shared between the calls: the value is consumed once
+     * (e.g. lazy cursor stream) or its extraction calls back the caller
+     */
+    boolean isShareable() {
+        return handleExtractor == null && !callback;
+    }
+
+    boolean isReadable() {
+        return extractor != null || handleExtractor != null;
+    }
+
+    void registerOutParameter(CallableStatement cs, int idx) throws SQLException {
+        if (typeName != null) {
+            cs.registerOutParameter(idx, sqlType, typeName);
+        } else {
+            cs.registerOutParameter(idx, sqlType);
+        }
+    }
+
     @Nullable
-    T getValueOrNull(CallableStatement cs, int idx) throws SQLException {
+    T getValueOrNull(CallableStatement cs, int idx, @Nullable ResourceHandle handle) throws SQLException {
+        if (handleExtractor != null) {
+            if (handle == null) {
+                throw requiresHandleException();
+            }
+            return handleExtractor.getValueOrNull(cs, idx, handle);
+        }
         return extractor.getValueOrNull(cs, idx);
     }
 
+    IllegalStateException requiresHandleException() {
+        return new IllegalStateException("Type " + this + " requires execution via ResourceHandle");
+    }
+
     @Override
     public String toString() {
         return printName + "[" + sqlType + "]";
     }
 
-    void inBeforeExecute(CallableStatement cs, int idx, T value) throws SQLException {
-        setter.setValue(cs, idx, sqlType, value);
+    /**
+     * @return the resource to release after the execution or null
+     */
+    @Nullable
+    AutoCloseable inBeforeExecute(CallableStatement cs, int idx, T value) throws SQLException {
+        return setter.setValue(cs, idx, sqlType, value);
     }
 
     interface CallableStatementSetter<T> {
         void setValue(CallableStatement cs, int idx, int sqlType, T value) throws SQLException;
     }
 
+    interface ResourceSetter<T> {
+        /**
+         * @return the resource created for the value, which should be released after the execution, or null
+         */
+        @Nullable
+        AutoCloseable setValue(CallableStatement cs, int idx, int sqlType, T value) throws SQLException;
+    }
+
     interface CallableStatementExtractor<T> {
         T getValueOrNull(CallableStatement cs, int idx) throws SQLException;
     }
+
+    interface ResourceHandleExtractor<T> {
+        T getValueOrNull(CallableStatement cs, int idx, ResourceHandle handle) throws SQLException;
+    }
 }
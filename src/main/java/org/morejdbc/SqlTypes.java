@@ -1,17 +1,23 @@
 package org.morejdbc;
 
+import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 
 import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.CallableStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 
 /**
  * Type bindings
  * http://ladyj.eu/oracle/default-mappings-between-sql-types-and-java-types
+ * <p>
+ * The common types are bound with the direct setters of {@link CallableStatement}
+ * ({@code setInt}, {@code setLong}, {@code setNull(idx, sqlType)}, ...) bypassing
+ * the generic {@link StatementCreatorUtils#setParameterValue} dispatch.
  */
 public class SqlTypes {
 
@@ -19,31 +25,61 @@ public class SqlTypes {
      * Types.INTEGER
      */
     public static final SqlType<Integer> INTEGER = SqlType.of("integer", Types.INTEGER,
-            StatementCreatorUtils::setParameterValue, DBUtils::getIntOrNull);
+            (cs, idx, sqlType, value) -> {
+                if (value == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setInt(idx, value);
+                }
+            }, DBUtils::getIntOrNull);
 
     /**
      * Types.BIGINT
      */
     public static final SqlType<Long> BIGINT = SqlType.of("bigint", Types.BIGINT,
-            StatementCreatorUtils::setParameterValue, DBUtils::getLongOrNull);
+            (cs, idx, sqlType, value) -> {
+                if (value == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setLong(idx, value);
+                }
+            }, DBUtils::getLongOrNull);
+
+    /**
+     * Types.DOUBLE
+     */
+    public static final SqlType<Double> DOUBLE = SqlType.of("double", Types.DOUBLE,
+            (cs, idx, sqlType, value) -> {
+                if (value == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setDouble(idx, value);
+                }
+            }, DBUtils::getDoubleOrNull);
 
     /**
      * Types.NUMERIC
      */
     public static final SqlType<BigDecimal> NUMERIC = SqlType.of("numeric", Types.NUMERIC,
-            StatementCreatorUtils::setParameterValue, CallableStatement::getBigDecimal);
+            SqlTypes::setBigDecimal, CallableStatement::getBigDecimal);
 
     /**
      * Types.DECIMAL
      */
     public static final SqlType<BigDecimal> DECIMAL = SqlType.of("decimal", Types.DECIMAL,
-            StatementCreatorUtils::setParameterValue, CallableStatement::getBigDecimal);
+            SqlTypes::setBigDecimal, CallableStatement::getBigDecimal);
 
     /**
      * Types.VARCHAR
      */
     public static final SqlType<String> VARCHAR = SqlType.of("varchar", Types.VARCHAR,
-            StatementCreatorUtils::setParameterValue, CallableStatement::getString);
+            (cs, idx, sqlType, value) -> {
+                if (value == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setString(idx, value);
+                }
+            }, CallableStatement::getString);
 
     /**
      * Types.BINARY
@@ -68,7 +104,37 @@ public class SqlTypes {
      * Types.TIMESTAMP
      */
     public static final SqlType<Timestamp> TIMESTAMP = SqlType.of("timestamp", Types.TIMESTAMP,
-            StatementCreatorUtils::setParameterValue, CallableStatement::getTimestamp);
+            (cs, idx, sqlType, value) -> {
+                if (value == null) {
+                    cs.setNull(idx, sqlType);
+                } else {
+                    cs.setTimestamp(idx, value);
+                }
+            }, CallableStatement::getTimestamp);
+
+    /**
+     * The value of the type unknown in advance, bound with {@link StatementCreatorUtils#setParameterValue}.
+     */
+    static final SqlType<Object> OBJECT = object(SqlTypeValue.TYPE_UNKNOWN);
+
+    /**
+     * Any value bound with {@link StatementCreatorUtils#setParameterValue} and extracted with
+     * {@link CallableStatement#getObject(int)}.
+     *
+     * @param sqlType see {@link Types}
+     */
+    public static SqlType<Object> object(int sqlType) {
+        return SqlType.of("object", sqlType, StatementCreatorUtils::setParameterValue, CallableStatement::getObject);
+    }
+
+    private static void setBigDecimal(CallableStatement cs, int idx, int sqlType, BigDecimal value)
+            throws SQLException {
+        if (value == null) {
+            cs.setNull(idx, sqlType);
+        } else {
+            cs.setBigDecimal(idx, value);
+        }
+    }
 
     private SqlTypes() {
     }
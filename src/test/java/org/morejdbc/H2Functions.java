@@ -1,11 +1,27 @@
 package org.morejdbc;
 
+import java.util.Arrays;
+
 public class H2Functions {
 
     public static int mult(int arg1, int arg2) {
         return arg1 * arg2;
     }
 
+    public static long sum(Long[] values) {
+        long sum = 0;
+        for (Long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    public static byte[] concat(byte[] b1, byte[] b2) {
+        byte[] result = Arrays.copyOf(b1, b1.length + b2.length);
+        System.arraycopy(b2, 0, result, b1.length, b2.length);
+        return result;
+    }
+
     private H2Functions() {
     }
 }
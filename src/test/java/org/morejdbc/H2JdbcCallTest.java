@@ -2,26 +2,70 @@ package org.morejdbc;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.morejdbc.CallPipeline.pipeline;
+import static org.morejdbc.JdbcBatchCall.batchSql;
+import static org.morejdbc.JdbcBulkCall.bulkSql;
 import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.NamedJdbcCall.call;
 import static org.morejdbc.SqlTypes.INTEGER;
 
 public class H2JdbcCallTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private Connection connection;
     private JdbcTemplate jdbc;
+    private CallDialect dialect;
 
     @Before
     public void before() throws SQLException {
@@ -29,6 +73,7 @@ public class H2JdbcCallTest {
         this.connection = DriverManager.getConnection(props.getProperty("url"), props);
         DataSource dataSource = TestUtils.smartDataSource(this.connection);
         this.jdbc = new JdbcTemplate(dataSource);
+        this.dialect = CallDialects.detect(dataSource);
 
         jdbc.execute("CREATE ALIAS mult FOR \"org.morejdbc.H2Functions.mult\"");
     }
@@ -68,4 +113,597 @@ public class H2JdbcCallTest {
 
         assertEquals(6, out.get());
     }
+
+    @Test
+    public void testMultIntOut() {
+        IntOut out = IntOut.of();
+        jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .out(out).in(2).in(3));
+
+        assertEquals(6, out.getAsInt());
+        assertFalse(out.isNull());
+    }
+
+    @Test
+    public void testMultNullIn() {
+        IntOut out = IntOut.of();
+        jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .out(out).in((Integer) null).in(3L));
+
+        assertTrue(out.isNull());
+    }
+
+    @Test
+    public void testAsync() {
+        try (AsyncCallExecutor async = AsyncCallExecutor.create(jdbc.getDataSource(), 2)) {
+            List<IntOut> outs = new ArrayList<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                IntOut out = IntOut.of();
+                outs.add(out);
+                futures.add(async.execute(callSql("{? = call mult(?, ?)}").out(out).in(i).in(i)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            for (int i = 0; i < outs.size(); i++) {
+                assertEquals(i * i, outs.get(i).getAsInt());
+            }
+        }
+    }
+
+    @Test
+    public void testPipeline() {
+        IntOut out1 = IntOut.of();
+        IntOut out2 = IntOut.of();
+        CallPipeline pipeline = pipeline()
+                .add(callSql("{? = call mult(?, ?)}").out(out1).in(2).in(3))
+                .add(callSql("{? = call mult(?, ?)}").out(out2).in(4).in(5))
+                .merge();
+        jdbc.execute(pipeline);
+
+        // not Oracle, executed one by one
+        assertEquals("{? = call mult(?, ?)}", pipeline.getSql());
+        assertEquals(6, out1.getAsInt());
+        assertEquals(20, out2.getAsInt());
+    }
+
+    @Test
+    public void testArrayIn() {
+        jdbc.execute("CREATE ALIAS sum_array FOR \"org.morejdbc.H2Functions.sum\"");
+        LongOut sum = LongOut.of();
+        jdbc.execute(callSql("{? = call sum_array(?)}")
+                .out(sum).in(new long[]{1, 2, 3}, PostgresSqlTypes.int8Array()));
+
+        assertEquals(6L, sum.getAsLong());
+    }
+
+    @Test
+    public void testBlobStreams() throws IOException {
+        jdbc.execute("CREATE ALIAS concat_bytes FOR \"org.morejdbc.H2Functions.concat\"");
+        byte[] blob1 = new byte[4096];
+        byte[] blob2 = new byte[4096];
+        ThreadLocalRandom.current().nextBytes(blob1);
+        ThreadLocalRandom.current().nextBytes(blob2);
+        Path source = temporaryFolder.newFile().toPath();
+        Files.write(source, blob1);
+        Path target = temporaryFolder.newFile().toPath();
+
+        Out<Long> bytes = Out.of(LobSqlTypes.blobToFile(target));
+        jdbc.execute(callSql("{? = call concat_bytes(?, ?)}")
+                .out(bytes)
+                .in(source, LobSqlTypes.BLOB_FILE)
+                .in(new ByteArrayInputStream(blob2), LobSqlTypes.BLOB_STREAM));
+
+        assertEquals(Long.valueOf(8192L), bytes.get());
+        assertArrayEquals(TestUtils.concat(blob1, blob2), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testBlobToChannel() {
+        jdbc.execute("CREATE ALIAS concat_bytes FOR \"org.morejdbc.H2Functions.concat\"");
+        byte[] blob1 = new byte[5000];
+        ThreadLocalRandom.current().nextBytes(blob1);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        Out<Long> bytes = Out.of(LobSqlTypes.blobToChannel(Channels.newChannel(target), 1024));
+        jdbc.execute(callSql("{? = call concat_bytes(?, ?)}")
+                .out(bytes)
+                .in(blob1)
+                .in(new byte[]{1}));
+
+        assertEquals(Long.valueOf(5001L), bytes.get());
+        assertArrayEquals(TestUtils.concat(blob1, new byte[]{1}), target.toByteArray());
+    }
+
+    @Test
+    public void testListener() {
+        List<CallEvent> events = new ArrayList<>();
+        IntOut out = IntOut.of();
+        jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .listener(events::add)
+                .out(out).in(2).in(3));
+        try {
+            jdbc.execute(callSql("{? = call mult(?, ?)}")
+                    .listener(events::add)
+                    .out(IntOut.of()).in(2).in("x"));
+        } catch (DataAccessException e) {
+            // expected
+        }
+
+        assertEquals(2, events.size());
+        CallEvent event = events.get(0);
+        assertTrue(event.isSuccess());
+        assertEquals("{? = call mult(?, ?)}", event.getSql());
+        assertEquals(3, event.getParameterCount());
+        assertEquals(-1L, event.getCursorRows());
+        assertTrue(event.getExecuteNanos() > 0);
+        assertTrue(event.getTotalNanos() >= event.getExecuteNanos());
+
+        CallEvent failed = events.get(1);
+        assertFalse(failed.isSuccess());
+        assertTrue(failed.getError() instanceof SQLException);
+    }
+
+    @Test
+    public void testProcedureMetadataCache() throws SQLException {
+        ProcedureMetadataCache cache = new ProcedureMetadataCache(1, TimeUnit.MINUTES);
+        List<ProcedureMetadataCache.Procedure> procedures = cache.getProcedures(connection, "mult");
+        assertEquals(1, procedures.size());
+        assertTrue(procedures.get(0).isFunction());
+        assertEquals(2, procedures.get(0).getParameters().size());
+        assertEquals(Types.INTEGER, procedures.get(0).getParameter("p1").getSqlType());
+
+        try {
+            jdbc.execute(call("mult", INTEGER).metadataCache(cache).in("p1", 2).in("p3", 3));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Parameter p3 is not declared by MULT"));
+        }
+        try {
+            jdbc.execute(call("mult", INTEGER).metadataCache(cache).in("p1", 2).out("p2", Out.of(INTEGER)));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Parameter p2 of MULT is IN, but bound as OUT", e.getMessage());
+        }
+        try {
+            jdbc.execute(call("mlt", INTEGER).metadataCache(cache).in("p1", 2));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Function mlt is not found"));
+        }
+
+        // the types of the values bound without type are resolved by the declaration
+        InOut<?>[] resolved = cache.check(connection, "MULT", true, new String[]{"P2", "P1"},
+                new InOut<?>[]{new InOut<>(In.of("3", SqlTypes.OBJECT), null), new InOut<>(In.of(2), null)});
+        assertEquals(Types.INTEGER, resolved[0].in.getType().getSqlType());
+        assertEquals(Types.INTEGER, resolved[1].in.getType().getSqlType());
+
+        assertEquals(Integer.valueOf(6), jdbc.execute(call("MULT", INTEGER)
+                .dialect(dialect)
+                .metadataCache(cache)
+                .inObject("P2", "3")
+                .inObject("P1", 2)));
+    }
+
+    @Test
+    public void testSlowCallLog() {
+        SlowCallLog slowCalls = new SlowCallLog(0, TimeUnit.MILLISECONDS, 2)
+                .redactor(parameter -> parameter.getIndex() == 3 ? "***" : parameter.getValue());
+        for (int i = 1; i <= 3; i++) {
+            jdbc.execute(callSql("{? = call mult(?, ?)}")
+                    .listener(slowCalls)
+                    .out(IntOut.of()).in(i).in(42));
+        }
+
+        assertEquals(3, slowCalls.getRecordedCount());
+        List<SlowCallLog.Entry> entries = slowCalls.dump();
+        assertEquals(2, entries.size());
+        assertEquals("[1 OUT integer, 2 IN integer=2, 3 IN integer=***]", entries.get(0).getParameters());
+        assertEquals("[1 OUT integer, 2 IN integer=3, 3 IN integer=***]", entries.get(1).getParameters());
+        assertFalse(entries.get(0).isSampled());
+    }
+
+    @Test
+    public void testSlowCallLogOutOfOrder() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SlowCallLog slowCalls = new SlowCallLog(0, TimeUnit.MILLISECONDS, 2)
+                .redactor(parameter -> {
+                    if (Integer.valueOf(1).equals(parameter.getValue())) {
+                        rendering.countDown();
+                        try {
+                            assertTrue(release.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    return parameter.getValue();
+                });
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .listener(slowCalls)
+                .out(IntOut.of()).in(1).in(42)));
+        assertTrue(rendering.await(10, TimeUnit.SECONDS));
+        // the second record takes the next slot, the third one takes the slot of the first record
+        for (int i = 2; i <= 3; i++) {
+            jdbc.execute(callSql("{? = call mult(?, ?)}")
+                    .listener(slowCalls)
+                    .out(IntOut.of()).in(i).in(42));
+        }
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        List<SlowCallLog.Entry> entries = slowCalls.dump();
+        assertEquals(2, entries.size());
+        assertEquals("[1 OUT integer, 2 IN integer=2, 3 IN integer=42]", entries.get(0).getParameters());
+        assertEquals("[1 OUT integer, 2 IN integer=3, 3 IN integer=42]", entries.get(1).getParameters());
+    }
+
+    @Test
+    public void testBatch() {
+        jdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(32))");
+
+        int[] counts = jdbc.execute(batchSql("INSERT INTO item (id, name) VALUES (?, ?)")
+                .chunkSize(2)
+                .in(1).in("first").addBatch()
+                .in(2).in("second").addBatch()
+                .in(3).in("third").addBatch());
+
+        assertArrayEquals(new int[]{1, 1, 1}, counts);
+        assertEquals(Integer.valueOf(3), jdbc.queryForObject("SELECT count(*) FROM item", Integer.class));
+    }
+
+    @Test
+    public void testBulk() {
+        jdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(32))");
+
+        List<Integer> failed = new ArrayList<>();
+        JdbcBulkCall.Result result = jdbc.execute(bulkSql("INSERT INTO item (id, name) VALUES (?, ?)",
+                IntStream.of(1, 2, 3, 2, 4, 5, 1).boxed(), (row, id) -> row.in(id).in("item" + id))
+                .chunkSize(3)
+                .commitEachChunk()
+                .onFailure((id, e) -> failed.add(id)));
+
+        assertEquals(Arrays.asList(2, 1), failed);
+        assertEquals(7, result.getRowCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(5, result.getUpdateCount());
+        assertEquals(3, result.getChunkCount());
+        assertEquals(Integer.valueOf(5), jdbc.queryForObject("SELECT count(*) FROM item", Integer.class));
+
+        try {
+            jdbc.execute(bulkSql("INSERT INTO item (id, name) VALUES (?, ?)",
+                    Arrays.asList(6, 1).iterator(), (row, id) -> row.in(id).in("item" + id)));
+            fail();
+        } catch (DuplicateKeyException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBulkInTransaction() throws SQLException {
+        jdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(32))");
+        connection.setAutoCommit(false);
+
+        // the chunks are rolled back to the savepoint and sent again without the failed rows
+        List<Integer> failed = new ArrayList<>();
+        JdbcBulkCall.Result result = jdbc.execute(bulkSql("INSERT INTO item (id, name) VALUES (?, ?)",
+                IntStream.of(1, 2, 3, 2, 4, 5, 1).boxed(), (row, id) -> row.in(id).in("item" + id))
+                .chunkSize(4)
+                .commitEachChunk()
+                .onFailure((id, e) -> failed.add(id)));
+
+        assertEquals(Arrays.asList(2, 1), failed);
+        assertEquals(7, result.getRowCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(5, result.getUpdateCount());
+        connection.rollback();
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5),
+                jdbc.queryForList("SELECT id FROM item ORDER BY id", Integer.class));
+    }
+
+    @Test
+    public void testPartitionedBulk() {
+        // the partitions are executed on the own connections of the pool, not the connection of the test
+        AtomicInteger connections = new AtomicInteger();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:partitioned_bulk;DB_CLOSE_DELAY=-1") {
+            @Override
+            protected Connection getConnectionFromDriver(Properties props) throws SQLException {
+                Connection conn = super.getConnectionFromDriver(props);
+                conn.setAutoCommit(false);
+                connections.incrementAndGet();
+                return conn;
+            }
+        };
+        JdbcTemplate bulkJdbc = new JdbcTemplate(dataSource);
+        bulkJdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(32))");
+        try (AsyncCallExecutor async = AsyncCallExecutor.create(dataSource, 4)) {
+            PartitionedBulkExecutor executor = new PartitionedBulkExecutor(async);
+            connections.set(0);
+            PartitionedBulkExecutor.Result result = executor.execute(IntStream.range(0, 1000).boxed(),
+                    partition -> bulkSql("INSERT INTO item (id, name) VALUES (?, ?)", partition,
+                            (row, id) -> row.in(id).in("item" + id)).chunkSize(64).commitEachChunk());
+            result.throwIfFailed();
+            assertEquals(1000, result.getRowCount());
+            assertEquals(4, result.getPartitions().size());
+            assertEquals(4, connections.get());
+
+            // not committed, rolled back on close
+            result = executor.execute(IntStream.range(1000, 1100).boxed(),
+                    partition -> bulkSql("INSERT INTO item (id, name) VALUES (?, ?)", partition,
+                            (row, id) -> row.in(id).in("item" + id)));
+            result.throwIfFailed();
+            assertEquals(100, result.getRowCount());
+
+            List<Integer> ids = Arrays.asList(1000, 1001, 1002, 1001);
+            result = executor.execute(ids, id -> id,
+                    partition -> bulkSql("INSERT INTO item (id, name) VALUES (?, ?)", partition,
+                            (row, id) -> row.in(id).in("item" + id)).commitEachChunk());
+            assertFalse(result.isSuccess());
+            assertEquals(1, result.getErrors().size());
+            assertTrue(result.getErrors().get(0) instanceof DuplicateKeyException);
+
+            // the failed chunk of 1001 is not committed
+            assertEquals(Integer.valueOf(1002), bulkJdbc.queryForObject("SELECT count(*) FROM item", Integer.class));
+        } finally {
+            bulkJdbc.execute("DROP TABLE item");
+        }
+    }
+
+    @Test
+    public void testConstructorRowMapper() {
+        jdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, item_name VARCHAR(32), price DECIMAL(10, 2))");
+        jdbc.update("INSERT INTO item VALUES (1, 'first', 1.50), (2, 'second', NULL)");
+
+        ConstructorRowMapper<Item> mapper = ConstructorRowMapper.of(Item.class);
+        List<Item> items = jdbc.query("SELECT price, item_name, id FROM item ORDER BY id", mapper);
+        assertEquals(2, items.size());
+        assertEquals(1L, items.get(0).id);
+        assertEquals("first", items.get(0).itemName);
+        assertEquals(new BigDecimal("1.50"), items.get(0).price);
+        assertEquals("second", items.get(1).itemName);
+        assertNull(items.get(1).price);
+
+        List<Item> renamed = jdbc.query("SELECT id AS item_id, item_name AS name, price FROM item ORDER BY id",
+                ConstructorRowMapper.of(Item.class, "item_id", "name", "price"));
+        assertEquals("second", renamed.get(1).itemName);
+
+        try {
+            // the generated proxy class has no parameter names
+            Class<?> proxyClass = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Runnable.class},
+                    (proxy, method, args) -> null).getClass();
+            ConstructorRowMapper.of(proxyClass);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("of(type, columnNames...)"));
+        }
+    }
+
+    @Test
+    public void testColumnIndex() {
+        jdbc.execute("CREATE TABLE item (id INT PRIMARY KEY, item_name VARCHAR(32), price DECIMAL(10, 2))");
+        jdbc.update("INSERT INTO item VALUES (1, 'first', 1.50), (2, 'second', NULL)");
+
+        AtomicInteger resolved = new AtomicInteger();
+        List<Item> items = jdbc.query("SELECT * FROM item ORDER BY id", ColumnIndex.rowMapper(columns -> {
+            resolved.incrementAndGet();
+            int id = columns.indexOf("id");
+            int itemName = columns.indexOf("itemName");
+            int price = columns.indexOf("PRICE");
+            assertEquals(-1, columns.findIndex("missing"));
+            return (rs, rowNum) -> new Item(DBUtils.getLongOrNull(rs, id), rs.getString(itemName),
+                    rs.getBigDecimal(price));
+        }));
+        assertEquals(1, resolved.get());
+        assertEquals(2, items.size());
+        assertEquals("first", items.get(0).itemName);
+        assertNull(items.get(1).price);
+
+        // the static mapper of two result sets mapped in turn, like by concurrent threads
+        AtomicInteger names = new AtomicInteger();
+        RowMapper<String> nameMapper = ColumnIndex.rowMapper(columns -> {
+            names.incrementAndGet();
+            int itemName = columns.indexOf("item_name");
+            return (rs, rowNum) -> rs.getString(itemName);
+        });
+        List<String> mapped = jdbc.query("SELECT item_name FROM item ORDER BY id", rs1 -> {
+            return jdbc.query("SELECT id, item_name FROM item ORDER BY id", rs2 -> {
+                List<String> result = new ArrayList<>();
+                int rowNum = 0;
+                while (rs1.next() && rs2.next()) {
+                    result.add(nameMapper.mapRow(rs1, rowNum));
+                    result.add(nameMapper.mapRow(rs2, rowNum));
+                    rowNum++;
+                }
+                return result;
+            });
+        });
+        assertEquals(Arrays.asList("first", "first", "second", "second"), mapped);
+        assertEquals(2, names.get());
+    }
+
+    @Test
+    public void testColumnarResult() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ColumnarResult result = jdbc.query("SELECT x AS id, CAST(x AS INT) AS qty, x / 2.0E0 AS half,"
+                            + " CASE WHEN MOD(x, 3) = 0 THEN NULL ELSE x END AS maybe, 'n' || x AS name,"
+                            + " CAST(x + 9007199254740992 AS NUMERIC(38, 0)) AS big"
+                            + " FROM SYSTEM_RANGE(1, 40000)",
+                    ColumnarResult.extractor(offHeap));
+            assertEquals(40000, result.getRowCount());
+            ColumnarResult.LongColumn ids = result.getLongColumn("id");
+            assertEquals(3000L, ids.get(2999));
+            // across the off-heap chunks
+            assertEquals(16385L, ids.get(16384));
+            assertEquals(40000L, ids.get(39999));
+            long[] idArray = ids.toArray();
+            assertEquals(40000, idArray.length);
+            assertEquals(32769L, idArray[32768]);
+            assertEquals(8192.0, result.getDoubleColumn("half").get(16383), 0.0);
+            assertEquals(7, result.getIntColumn("qty").get(6));
+            assertEquals(1.5, result.getDoubleColumn("half").get(2), 0.0);
+            ColumnarResult.LongColumn maybe = result.getLongColumn("maybe");
+            assertTrue(maybe.isNull(2));
+            assertFalse(maybe.isNull(3));
+            assertTrue(maybe.isNull(2999));
+            assertEquals("n1", result.getObjectColumn("name").get(0));
+            assertEquals(new BigDecimal("9007199254740993"), result.getObjectColumn("big").get(0));
+        }
+    }
+
+    @Test
+    public void testCachingCallExecutor() {
+        CachingCallExecutor cache = new CachingCallExecutor(jdbc, 1, TimeUnit.MINUTES, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Integer.valueOf(6), cache.execute(call("MULT", INTEGER)
+                    .dialect(dialect)
+                    .in("P1", 2)
+                    .in("P2", 3)));
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+
+        assertEquals(Integer.valueOf(8), cache.execute(call("MULT", INTEGER)
+                .dialect(dialect).in("P1", 2).in("P2", 4)));
+        assertEquals(Integer.valueOf(10), cache.execute(call("MULT", INTEGER)
+                .dialect(dialect).in("P1", 2).in("P2", 5)));
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertEquals(0.4, cache.getHitRatio(), 0.001);
+    }
+
+    public static class Item {
+
+        private final long id;
+        private final String itemName;
+        private final BigDecimal price;
+
+        public Item(long id, String itemName, BigDecimal price) {
+            this.id = id;
+            this.itemName = itemName;
+            this.price = price;
+        }
+    }
+
+    @Test
+    public void testStatementCache() {
+        CallableStatementCache statementCache = new CallableStatementCache(1);
+        for (int i = 1; i <= 3; i++) {
+            Out<Integer> out = Out.of(INTEGER);
+            jdbc.execute(callSql("{? = call mult(?, ?)}")
+                    .statementCache(statementCache)
+                    .out(out).in(i).in(3));
+            assertEquals(Integer.valueOf(i * 3), out.get());
+        }
+        assertEquals(2, statementCache.getHits());
+        assertEquals(1, statementCache.getMisses());
+        assertEquals(1, statementCache.size());
+
+        jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .statementCache(statementCache)
+                .out(INTEGER, out -> assertEquals(Integer.valueOf(10), out)).in(5).in(2));
+        jdbc.execute(callSql("{? = call mult(?, 2)}")
+                .statementCache(statementCache)
+                .out(INTEGER, out -> assertEquals(Integer.valueOf(8), out)).in(4));
+        assertEquals(1, statementCache.getEvictions());
+        assertEquals(1, statementCache.size());
+
+        statementCache.clear();
+        assertEquals(0, statementCache.size());
+    }
+
+    @Test
+    public void testStatementCachePooled() {
+        // each call gets a new proxy of the connection, which closes its statements on return to the pool
+        JdbcTemplate pooledJdbc = new JdbcTemplate(TestUtils.pooledDataSource(connection));
+        CallableStatementCache statementCache = new CallableStatementCache(4);
+        for (int i = 1; i <= 3; i++) {
+            IntOut out = IntOut.of();
+            pooledJdbc.execute(callSql("{? = call mult(?, ?)}")
+                    .statementCache(statementCache)
+                    .out(out).in(i).in(3));
+            assertEquals(i * 3, out.getAsInt());
+        }
+        assertEquals(2, statementCache.getHits());
+        assertEquals(1, statementCache.getMisses());
+        statementCache.clear();
+    }
+
+    @Test
+    public void testStatementCacheClosedConnection() throws SQLException {
+        CallableStatementCache statementCache = new CallableStatementCache(4);
+        jdbc.execute(callSql("{? = call mult(?, ?)}")
+                .statementCache(statementCache)
+                .out(IntOut.of()).in(1).in(3));
+        Properties props = TestUtils.propertiesFromString(TestUtils.readString("h2_test.properties"));
+        try (Connection other = DriverManager.getConnection(props.getProperty("url"), props)) {
+            new JdbcTemplate(TestUtils.smartDataSource(other)).execute(callSql("{? = call mult(?, ?)}")
+                    .statementCache(statementCache)
+                    .out(IntOut.of()).in(2).in(3));
+        }
+        assertEquals(2, statementCache.size());
+
+        // the miss on the live connection drops the statements of the closed one
+        jdbc.execute(callSql("{? = call mult(?, 2)}")
+                .statementCache(statementCache)
+                .out(IntOut.of()).in(4));
+        assertEquals(3, statementCache.getMisses());
+        assertEquals(2, statementCache.size());
+        statementCache.clear();
+    }
+
+    @Test
+    public void testResourceHandle() {
+        Out<Integer> out = Out.of(INTEGER);
+        ResourceHandle handle = ResourceHandle.open(TestUtils.smartDataSource(connection));
+        try (handle) {
+            handle.execute(callSql("{? = call mult(?, ?)}")
+                    .out(out).in(2).in(3));
+        }
+
+        assertEquals(Integer.valueOf(6), out.get());
+        assertTrue(handle.isClosed());
+    }
+
+    @Test
+    public void testResourceHandleCursorStream() throws SQLException {
+        // H2 does not return cursors as OUT values, the statement returns the H2 result set instead
+        ResultSet cursor = connection.createStatement().executeQuery("SELECT x AS id FROM SYSTEM_RANGE(1, 5)");
+        CallableStatement cs = mock(CallableStatement.class);
+        when(cs.getObject(1)).thenReturn(cursor);
+        Connection conn = mock(Connection.class);
+        when(conn.prepareCall("{call get_ids(?)}")).thenReturn(cs);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+
+        Out<Stream<Long>> ids = Out.of(OracleSqlTypes.cursorStream((rs, rowNum) -> rs.getLong("id"), 2));
+        ResourceHandle handle = ResourceHandle.open(dataSource);
+        handle.execute(callSql("{call get_ids(?)}").out(ids));
+        assertFalse(cursor.isClosed());
+        verify(cs, never()).close();
+
+        try (Stream<Long> stream = ids.get()) {
+            assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), stream.collect(Collectors.toList()));
+        }
+        assertTrue(cursor.isClosed());
+        assertTrue(handle.isClosed());
+        verify(cs).close();
+        // the translator of the handle also reads the metadata via a connection of the data source
+        verify(conn, atLeastOnce()).close();
+    }
+
+    @Test
+    public void testCursorStreamWithoutHandle() throws SQLException {
+        Connection conn = mock(Connection.class);
+        try {
+            callSql("{call get_ids(?)}")
+                    .out(Out.of(OracleSqlTypes.cursorStream((rs, rowNum) -> rs.getLong("id"))))
+                    .doInConnection(conn);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        // the call is not executed
+        verify(conn, never()).prepareCall(anyString());
+    }
 }
@@ -1,16 +1,52 @@
 package org.morejdbc;
 
 import org.junit.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.morejdbc.JdbcBulkCall.bulkSql;
 import static org.morejdbc.JdbcCall.callSql;
 import static org.morejdbc.NamedJdbcCall.call;
 import static org.morejdbc.OracleSqlTypes.cursor;
@@ -73,6 +109,156 @@ public class MockitoCallTest {
         assertEquals("4def", result);
     }
 
+    private static final NamedCallTemplate<Void> TEST_MATH =
+            NamedCallTemplate.procedure("test_math", "val1", "val2", "out_sum", "out_mlt");
+
+    @Test
+    public void testCallTemplateMock() {
+        assertEquals("{call test_math(val1 => ?, val2 => ?, out_sum => ?, out_mlt => ?)}", TEST_MATH.getSql());
+
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        MockOut<Integer> sum = MockOut.of(INTEGER);
+        MockOut<Long> mlt = MockOut.of(BIGINT);
+        when(jdbc.execute(TEST_MATH.bind()
+                .in(10)
+                .in(20)
+                .out(sum)
+                .out(mlt))).then(invocation -> {
+            sum.setTo(invocation.getArguments()[0], 30);
+            mlt.setTo(invocation.getArguments()[0], 200L);
+            return null;
+        });
+
+        Result result = serviceCallTemplate(jdbc, 10, 20);
+
+        assertEquals(30, result.sum);
+        assertEquals(200, result.mlt);
+    }
+
+    @Test
+    public void testCallDialects() throws SQLException {
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(conn.getCatalog()).thenReturn("test");
+        when(metaData.getURL()).thenReturn("jdbc:mysql://localhost/test");
+        when(metaData.getProcedureColumns(eq("test"), any(), eq("test_math"), eq("%"))).thenReturn(rs);
+        mockProcedureColumns(rs, "val1", "val2", "out_sum", "out_mlt");
+
+        CallDialects.PositionalCallDialect dialect = new CallDialects.PositionalCallDialect(1, TimeUnit.MINUTES);
+        for (int i = 0; i < 2; i++) {
+            CallDialect.CallSql mysql = dialect.getCallSql(conn, "test_math", false,
+                    new String[]{"out_mlt", "VAL2", "val1", "out_sum"});
+            assertEquals("{call test_math(?, ?, ?, ?)}", mysql.getSql());
+            assertArrayEquals(new String[]{"val1", "VAL2", "out_sum", "out_mlt"},
+                    mysql.reorder(new String[]{"out_mlt", "VAL2", "val1", "out_sum"}));
+        }
+        verify(metaData, times(1)).getProcedureColumns(any(), any(), any(), any());
+
+        // the parameters are reordered by the new declaration after invalidate
+        mockProcedureColumns(rs, "val2", "val1", "out_mlt", "out_sum");
+        dialect.invalidate();
+        assertArrayEquals(new String[]{"VAL2", "val1", "out_mlt", "out_sum"},
+                dialect.getCallSql(conn, "test_math", false, new String[]{"out_mlt", "VAL2", "val1", "out_sum"})
+                        .reorder(new String[]{"out_mlt", "VAL2", "val1", "out_sum"}));
+        verify(metaData, times(2)).getProcedureColumns(any(), any(), any(), any());
+
+        assertEquals("call test_math(val1 => ?, val2 => ?)",
+                CallDialects.POSTGRES.getCallSql(conn, "test_math", false, new String[]{"val1", "val2"}).getSql());
+        assertEquals("{? = call get_concat(s1 => ?)}",
+                CallDialects.POSTGRES.getCallSql(conn, "get_concat", true, new String[]{"s1"}).getSql());
+    }
+
+    private static void mockProcedureColumns(ResultSet rs, String in1, String in2, String out1, String out2)
+            throws SQLException {
+        when(rs.next()).thenReturn(true, true, true, true, false);
+        when(rs.getInt("COLUMN_TYPE")).thenReturn(DatabaseMetaData.procedureColumnIn,
+                DatabaseMetaData.procedureColumnIn, DatabaseMetaData.procedureColumnOut,
+                DatabaseMetaData.procedureColumnOut);
+        when(rs.getString("COLUMN_NAME")).thenReturn(in1, in2, out1, out2);
+    }
+
+    @Test
+    public void testArrayInFreed() throws SQLException {
+        Connection conn = mock(Connection.class);
+        CallableStatement cs = mock(CallableStatement.class);
+        Array array = mock(Array.class);
+        when(conn.prepareCall("{call process_ids(?)}")).thenReturn(cs);
+        when(cs.getConnection()).thenReturn(conn);
+        when(conn.createArrayOf(eq("int8"), any())).thenReturn(array);
+
+        callSql("{call process_ids(?)}")
+                .in(Arrays.asList(1L, 2L, 3L), PostgresSqlTypes.int8List())
+                .doInConnection(conn);
+
+        verify(cs).setArray(1, array);
+        verify(array).free();
+    }
+
+    @Test
+    public void testBlobFileClosedAfterExecute() throws Exception {
+        Path file = Files.createTempFile("blob", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3});
+            Connection conn = mock(Connection.class);
+            CallableStatement cs = mock(CallableStatement.class);
+            when(conn.prepareCall("{call store(?)}")).thenReturn(cs);
+            AtomicReference<InputStream> bound = new AtomicReference<>();
+            doAnswer(invocation -> {
+                InputStream stream = invocation.getArgument(1);
+                // the driver reads the declared length and does not reach the end
+                assertEquals(1, stream.read());
+                bound.set(stream);
+                return null;
+            }).when(cs).setBlob(eq(1), any(InputStream.class), eq(3L));
+
+            callSql("{call store(?)}")
+                    .in(file, LobSqlTypes.BLOB_FILE)
+                    .doInConnection(conn);
+
+            assertEquals(-1, bound.get().read());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelCursorsRejected() throws SQLException {
+        Connection conn = mock(Connection.class);
+        CallableStatement cs = mock(CallableStatement.class);
+        ResultSet rs1 = mock(ResultSet.class);
+        ResultSet rs2 = mock(ResultSet.class);
+        ResultSet rs3 = mock(ResultSet.class);
+        when(conn.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getObject(1)).thenReturn(rs1);
+        when(cs.getObject(2)).thenReturn(rs2);
+        when(cs.getObject(3)).thenReturn(rs3);
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = command -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        };
+
+        try {
+            call("get_cursors")
+                    .parallelCursors(executor)
+                    .out("cur1", Out.of(cursor((rs, rowNum) -> rowNum)))
+                    .out("cur2", Out.of(cursor((rs, rowNum) -> rowNum)))
+                    .out("cur3", Out.of(cursor((rs, rowNum) -> rowNum)))
+                    .doInConnection(conn);
+            fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        verify(rs1).close();
+        verify(rs2).close();
+        verify(rs3).close();
+    }
+
     @Test
     public void testRefCursorOutParam() {
         JdbcTemplate jdbc = mock(JdbcTemplate.class);
@@ -99,6 +285,256 @@ public class MockitoCallTest {
         ));
     }
 
+    @Test
+    public void testCoalescingCallExecutor() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        CountDownLatch release = new CountDownLatch(1);
+        MockOut<Integer> mlt = MockOut.of(INTEGER);
+        when(jdbc.execute(call("get_math", INTEGER)
+                .in("val", 10)
+                .out("out_mlt", mlt))).then(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            mlt.setTo(invocation.getArguments()[0], 100);
+            return 20;
+        });
+
+        CoalescingCallExecutor coalescing = new CoalescingCallExecutor(jdbc);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Out<Integer> out1 = Out.of(INTEGER);
+            Future<Integer> call1 = executor.submit(() -> coalescing.execute(call("get_math", INTEGER)
+                    .in("val", 10).out("out_mlt", out1)));
+            while (coalescing.getInFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            Out<Integer> out2 = Out.of(INTEGER);
+            Future<Integer> call2 = executor.submit(() -> coalescing.execute(call("get_math", INTEGER)
+                    .in("val", 10).out("out_mlt", out2)));
+            while (coalescing.getCoalescedCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(Integer.valueOf(20), call1.get(10, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(20), call2.get(10, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(100), out1.get());
+            assertEquals(Integer.valueOf(100), out2.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(jdbc, times(1)).execute(any(ConnectionCallback.class));
+        assertEquals(1, coalescing.getExecutionCount());
+        assertEquals(0, coalescing.getInFlightCount());
+    }
+
+    @Test
+    public void testBulkAbortedTransaction() throws SQLException {
+        // PostgreSQL: the failed row aborts the transaction until the rollback to the savepoint
+        Connection conn = mock(Connection.class);
+        CallableStatement cs = mock(CallableStatement.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        Savepoint savepoint = mock(Savepoint.class);
+        when(conn.getAutoCommit()).thenReturn(false);
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsSavepoints()).thenReturn(true);
+        when(conn.setSavepoint()).thenReturn(savepoint);
+        when(conn.prepareCall(anyString())).thenReturn(cs);
+        List<Integer> batch = new ArrayList<>();
+        AtomicInteger value = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+        doAnswer(invocation -> {
+            value.set(invocation.getArgument(1));
+            return null;
+        }).when(cs).setInt(eq(1), anyInt());
+        doAnswer(invocation -> batch.add(value.get())).when(cs).addBatch();
+        doAnswer(invocation -> {
+            batch.clear();
+            return null;
+        }).when(cs).clearBatch();
+        doAnswer(invocation -> {
+            aborted.set(false);
+            return null;
+        }).when(conn).rollback(savepoint);
+        when(cs.executeBatch()).then(invocation -> {
+            if (aborted.get()) {
+                throw new BatchUpdateException("current transaction is aborted", "25P02", 0, new int[0]);
+            }
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, 1);
+            int failed = batch.indexOf(2);
+            batch.clear();
+            if (failed >= 0) {
+                aborted.set(true);
+                Arrays.fill(counts, failed, counts.length, Statement.EXECUTE_FAILED);
+                throw new BatchUpdateException("duplicate key", "23505", 0, counts);
+            }
+            return counts;
+        });
+
+        List<Integer> failed = new ArrayList<>();
+        JdbcBulkCall.Result result = bulkSql("INSERT INTO item (id) VALUES (?)", Arrays.asList(1, 2, 3).iterator(),
+                (row, id) -> row.in(id))
+                .onFailure((id, e) -> failed.add(id))
+                .doInConnection(conn);
+
+        assertEquals(Arrays.asList(2), failed);
+        assertEquals(3, result.getRowCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(2, result.getUpdateCount());
+        verify(conn, times(1)).rollback(savepoint);
+        verify(conn, times(1)).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    public void testCachingCallExecutorSingleFlight() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbc.execute(call("get_rate", INTEGER).in("val", 10))).then(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 20;
+        });
+
+        CachingCallExecutor cache = new CachingCallExecutor(jdbc, 1, TimeUnit.MINUTES, 10);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> call1 = executor.submit(() -> cache.execute(call("get_rate", INTEGER)
+                    .in("val", 10)));
+            while (cache.getMissCount() == 0) {
+                Thread.sleep(1);
+            }
+            Future<Integer> call2 = executor.submit(() -> cache.execute(call("get_rate", INTEGER)
+                    .in("val", 10)));
+            while (cache.getHitCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(Integer.valueOf(20), call1.get(10, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(20), call2.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(jdbc, times(1)).execute(any(ConnectionCallback.class));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCachingCallExecutorWeigherFailure() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbc.execute(call("get_rate", INTEGER).in("val", 10))).then(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 20;
+        });
+
+        CachingCallExecutor cache = new CachingCallExecutor(jdbc, 1, TimeUnit.MINUTES, 10)
+                .weigher(value -> -1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> call1 = executor.submit(() -> cache.execute(call("get_rate", INTEGER)
+                    .in("val", 10)));
+            while (cache.getMissCount() == 0) {
+                Thread.sleep(1);
+            }
+            Future<Integer> call2 = executor.submit(() -> cache.execute(call("get_rate", INTEGER)
+                    .in("val", 10)));
+            while (cache.getHitCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // the waiter receives the failure instead of waiting forever
+            for (Future<Integer> future : Arrays.asList(call1, call2)) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException e) {
+                    assertEquals("weight should not be negative", e.getCause().getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getLoadFailureCount());
+    }
+
+    @Test
+    public void testCachingCallExecutorCursorCallbacks() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        CachingCallExecutor cache = new CachingCallExecutor(jdbc, 1, TimeUnit.MINUTES, 10);
+        List<SqlType<Long>> types = Arrays.asList(
+                OracleSqlTypes.cursorCallback(rs -> {
+                }),
+                OracleSqlTypes.cursorConsumer((rs, rowNum) -> rs.getString(1), value -> {
+                }),
+                PostgresSqlTypes.cursorConsumer((rs, rowNum) -> rs.getString(1), value -> {
+                }));
+        for (SqlType<Long> type : types) {
+            // the cached row count would skip the callback of the caller
+            try {
+                cache.execute(call("get_rows", type));
+                fail();
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Calls returning cursor"));
+            }
+        }
+        verify(jdbc, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    public void testCoalescingCallExecutorCursorMappers() throws Exception {
+        // the same cursor type name, but another mapper
+        assertNotCoalesced(Out.of(cursor((rs, rowNum) -> rs.getString("id"))),
+                Out.of(cursor((rs, rowNum) -> rs.getString("value"))), Arrays.asList("row"));
+
+        // the same consumer instance, each caller expects the rows passed to the consumer
+        SqlType<Long> consumer = OracleSqlTypes.cursorConsumer((rs, rowNum) -> rs.getString("id"), id -> {
+        });
+        assertNotCoalesced(Out.of(consumer), Out.of(consumer), 1L);
+    }
+
+    private static void assertNotCoalesced(Out<?> out1, Out<?> out2, Object value) throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbc.execute(any(ConnectionCallback.class))).then(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            NamedJdbcCall<?> call = invocation.getArgument(0);
+            setOut(call.parameters.get(0).out, value);
+            return null;
+        });
+
+        CoalescingCallExecutor coalescing = new CoalescingCallExecutor(jdbc);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> call1 = executor.submit(() -> coalescing.execute(call("proc_extras_tab")
+                    .out("v_cur", out1)));
+            while (coalescing.getExecutionCount() == 0) {
+                Thread.sleep(1);
+            }
+            Future<?> call2 = executor.submit(() -> coalescing.execute(call("proc_extras_tab")
+                    .out("v_cur", out2)));
+            while (coalescing.getExecutionCount() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            call1.get(10, TimeUnit.SECONDS);
+            call2.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(jdbc, times(2)).execute(any(ConnectionCallback.class));
+        assertEquals(0, coalescing.getCoalescedCount());
+        assertEquals(value, out1.get());
+        assertEquals(value, out2.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setOut(AbstractOut<T> out, Object value) {
+        out.afterExecute((T) value);
+    }
+
     private static List<Map.Entry<String, String>> serviceTestRefCursorOutParam(
             JdbcTemplate jdbc, String extra) {
         Out<List<Map.Entry<String, String>>> outExtras = Out.of(cursor((rs, rowNum) -> {
@@ -129,6 +565,17 @@ public class MockitoCallTest {
         return new Result(sum.get(), mlt.get());
     }
 
+    private static Result serviceCallTemplate(JdbcTemplate jdbc, int val1, int val2) {
+        Out<Integer> sum = Out.of(INTEGER);
+        Out<Long> mlt = Out.of(BIGINT);
+        jdbc.execute(TEST_MATH.bind()
+                .in(val1)
+                .in(val2)
+                .out(sum)
+                .out(mlt));
+        return new Result(sum.get(), mlt.get());
+    }
+
     private static String serviceCallNamedFunction(JdbcTemplate jdbc, int arg1, String arg2) {
         return jdbc.execute(call("get_concat", VARCHAR)
                 .in("s2", arg2)
@@ -13,7 +13,9 @@ import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
 import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.NamedJdbcCall.call;
 import static org.morejdbc.SqlTypes.INTEGER;
+import static org.morejdbc.SqlTypes.VARCHAR;
 
 /**
  * Follow instructions in readme-mysql-tests.md to prepare the database.
@@ -48,4 +50,29 @@ public class MysqlJdbcCallTest {
         assertEquals(30, sum.get().intValue());
         assertEquals(200, mlt.get().intValue());
     }
+
+    @Test
+    public void testNamedMath() {
+        Out<Integer> sum = Out.of(INTEGER);
+        Out<Integer> mlt = Out.of(INTEGER);
+        NamedJdbcCall<Void> call = call("test_math")
+                .dialect(CallDialects.MYSQL)
+                .out("out_mlt", mlt)
+                .in("val2", 20)
+                .in("val1", 10)
+                .out("out_sum", sum);
+        jdbc.execute(call);
+        assertEquals("{call test_math(?, ?, ?, ?)}", call.getSql());
+        assertEquals(30, sum.get().intValue());
+        assertEquals(200, mlt.get().intValue());
+    }
+
+    @Test
+    public void testNamedFunction() {
+        String result = jdbc.execute(call("get_concat", VARCHAR)
+                .dialect(CallDialects.detect(jdbc.getDataSource()))
+                .in("s2", "def")
+                .in("s1", "abc"));
+        assertEquals("abcdef", result);
+    }
 }
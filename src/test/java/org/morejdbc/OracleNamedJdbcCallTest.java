@@ -13,18 +13,29 @@ import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.morejdbc.CallPipeline.pipeline;
 import static org.morejdbc.NamedJdbcCall.call;
 import static org.morejdbc.OracleSqlTypes.cursor;
+import static org.morejdbc.OracleSqlTypes.cursorConsumer;
+import static org.morejdbc.OracleSqlTypes.cursorStream;
+import static org.morejdbc.OracleSqlTypes.numberArray;
+import static org.morejdbc.OracleSqlTypes.varchar2List;
 import static org.morejdbc.SqlTypes.BIGINT;
 import static org.morejdbc.SqlTypes.BINARY;
 import static org.morejdbc.SqlTypes.BLOB;
@@ -78,6 +89,23 @@ public class OracleNamedJdbcCallTest {
         assertEquals(mlt.get(), Long.valueOf(2L));
     }
 
+    @Test
+    public void testNamedCallMetadataCache() {
+        ProcedureMetadataCache cache = new ProcedureMetadataCache(10, TimeUnit.MINUTES);
+        Out<Integer> sum = Out.of(INTEGER);
+        Out<Long> mlt = Out.of(BIGINT);
+
+        jdbc.execute(call("test_math")
+                .metadataCache(cache)
+                .inObject("val1", 1)
+                .inObject("val2", "2")
+                .out("out_sum", sum)
+                .out("out_mlt", mlt));
+
+        assertEquals(sum.get(), Integer.valueOf(3));
+        assertEquals(mlt.get(), Long.valueOf(2L));
+    }
+
     @Test
     public void testNamedCall1Consumer() {
         AtomicReference<Integer> sum = new AtomicReference<>();
@@ -122,6 +150,67 @@ public class OracleNamedJdbcCallTest {
         assertEquals(mlt.get(), Integer.valueOf(2));
     }
 
+    private static final NamedCallTemplate<Void> TEST_MATH =
+            NamedCallTemplate.procedure("test_math", "val1", "val2", "out_sum", "out_mlt");
+
+    @Test
+    public void testNamedCallTemplate() {
+        for (int i = 1; i <= 3; i++) {
+            Out<Integer> sum = Out.of(INTEGER);
+            Out<Long> mlt = Out.of(BIGINT);
+
+            jdbc.execute(TEST_MATH.bind()
+                    .in(i)
+                    .in(2L)
+                    .out(sum)
+                    .out(mlt));
+
+            assertEquals(sum.get(), Integer.valueOf(i + 2));
+            assertEquals(mlt.get(), Long.valueOf(i * 2L));
+        }
+    }
+
+    @Test
+    public void testCallPipelineMerged() {
+        Out<Integer> sum = Out.of(INTEGER);
+        Out<Long> mlt = Out.of(BIGINT);
+        AtomicReference<String> concat = new AtomicReference<>();
+
+        CallPipeline pipeline = pipeline()
+                .add(call("test_math")
+                        .in("val1", 2)
+                        .in("val2", 3)
+                        .out("out_sum", sum)
+                        .out("out_mlt", mlt))
+                .add(call("get_concat", VARCHAR)
+                        .in("s1", "abc")
+                        .in("s2", "def"), concat::set)
+                .merge();
+        jdbc.execute(pipeline);
+
+        assertTrue(pipeline.getSql().startsWith("BEGIN"));
+        assertEquals(sum.get().intValue(), 5);
+        assertEquals(mlt.get().longValue(), 6L);
+        assertEquals(concat.get(), "abcdef");
+    }
+
+    @Test
+    public void testArrays() {
+        long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        Long sum = jdbc.execute(call("sum_numbers", BIGINT)
+                .in("ids", ids, numberArray()));
+        assertEquals(sum.longValue(), 500500L);
+
+        Out<List<String>> names = Out.of(varchar2List());
+        jdbc.execute(call("split_names")
+                .in("names", "a,b,c")
+                .out("out_names", names));
+        assertEquals(names.get(), Arrays.asList("a", "b", "c"));
+    }
+
     @Test
     public void testNamedCallFunc1() {
         String result = jdbc.execute(call("get_concat", VARCHAR)
@@ -201,6 +290,78 @@ public class OracleNamedJdbcCallTest {
         ));
     }
 
+    @Test
+    public void testRefCursorOutParamConsumer() {
+        List<Map.Entry<String, String>> extras = new ArrayList<>();
+        Out<Long> rows = Out.of(cursorConsumer((rs, rowNum) -> Map.entry(
+                rs.getString("id"), rs.getString("value")
+        ), extras::add, 2));
+
+        jdbc.execute(call("proc_extras_tab")
+                .in("extra_string", "1=value1;2=value2;6=value6;")
+                .out("out_extra_string", Out.of(VARCHAR))
+                .out("v_cur", rows));
+
+        assertEquals(Long.valueOf(3L), rows.get());
+        assertEquals(extras, Arrays.asList(
+                immutableEntry("1", "value1"),
+                immutableEntry("2", "value2"),
+                immutableEntry("6", "value6")
+        ));
+    }
+
+    @Test
+    public void testRefCursorOutParamStream() {
+        var outExtras = Out.of(cursorStream((rs, rowNum) -> Map.entry(
+                rs.getString("id"), rs.getString("value")
+        )));
+
+        ResourceHandle handle = ResourceHandle.open(TestUtils.smartDataSource(connection));
+        handle.execute(call("proc_extras_tab")
+                .in("extra_string", "1=value1;2=value2;6=value6;")
+                .out("out_extra_string", Out.of(VARCHAR))
+                .out("v_cur", outExtras));
+
+        try (var extras = outExtras.get()) {
+            assertEquals(extras.collect(Collectors.toList()), Arrays.asList(
+                    immutableEntry("1", "value1"),
+                    immutableEntry("2", "value2"),
+                    immutableEntry("6", "value6")
+            ));
+        }
+        assertTrue(handle.isClosed());
+    }
+
+    @Test
+    public void testRefCursorOutParamParallel() {
+        var outExtras1 = Out.of(cursor((rs, rowNum) -> Map.entry(
+                rs.getString("id"), rs.getString("value")
+        )));
+        var outExtras2 = Out.of(cursor((rs, rowNum) -> Map.entry(
+                rs.getString("id"), rs.getString("value")
+        )));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the first cursor is read by the executor, the last one in the calling thread
+            jdbc.execute(call("proc_two_cursors")
+                    .parallelCursors(executor)
+                    .in("extra_string", "1=value1;2=value2;6=value6;")
+                    .out("v_cur1", outExtras1)
+                    .out("v_cur2", outExtras2));
+        } finally {
+            executor.shutdown();
+        }
+
+        var expected = Arrays.asList(
+                immutableEntry("1", "value1"),
+                immutableEntry("2", "value2"),
+                immutableEntry("6", "value6")
+        );
+        assertEquals(expected, outExtras1.get());
+        assertEquals(expected, outExtras2.get());
+    }
+
     @Test
     public void testNamedCallInOut1() {
         Out<BigDecimal> sum = Out.of(DECIMAL);
@@ -223,6 +384,17 @@ public class OracleNamedJdbcCallTest {
         assertEquals(sum.get(), Integer.valueOf(8));
     }
 
+    @Test
+    public void testNamedCallInOutPrimitive() {
+        IntOut sum = IntOut.of();
+        jdbc.execute(call("test_in_out")
+                .in("x", 1)
+                .inOut("io_sum", 5, sum)
+                .in("y", 2));
+
+        assertEquals(8, sum.getAsInt());
+    }
+
     @Test
     public void testNamedCallInOut2Consumer() {
         AtomicReference<Integer> sum = new AtomicReference<>();
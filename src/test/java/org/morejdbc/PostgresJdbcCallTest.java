@@ -15,6 +15,7 @@ import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
@@ -22,8 +23,12 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.morejdbc.JdbcCall.callSql;
+import static org.morejdbc.NamedJdbcCall.call;
 import static org.morejdbc.PostgresSqlTypes.cursor;
+import static org.morejdbc.PostgresSqlTypes.cursorCallback;
+import static org.morejdbc.PostgresSqlTypes.int8List;
 import static org.morejdbc.SqlTypes.NUMERIC;
+import static org.morejdbc.SqlTypes.VARCHAR;
 
 /**
  * Follow instructions in readme-postgres-tests.md to prepare the database.
@@ -117,6 +122,56 @@ public class PostgresJdbcCallTest {
         assertEquals(Arrays.asList(1, 2), values);
     }
 
+    @Test
+    public void testRefcursorCallback() {
+        List<Integer> values = new ArrayList<>();
+        Long rows = transactionTemplate.execute(transaction -> {
+            Out<Long> outRows = Out.of(cursorCallback(row -> values.add(row.getInt(1))));
+            jdbc.execute(callSql("{ ? = call refcursorfunc() }")
+                    .out(outRows)
+            );
+            return outRows.get();
+        });
+        assertEquals(Long.valueOf(2L), rows);
+        assertEquals(Arrays.asList(1, 2), values);
+    }
+
+    @Test
+    public void testArrayIn() {
+        Out<BigDecimal> sum = Out.of(NUMERIC);
+        jdbc.execute(callSql("{ ? = call sum_int8(?) }")
+                .out(sum)
+                .in(Arrays.asList(1L, 2L, 3L), int8List())
+        );
+        assertEquals(new BigDecimal(6), sum.get());
+    }
+
+    @Test
+    public void testNamedFunction() {
+        NamedJdbcCall<String> call = call("get_concat", VARCHAR)
+                .dialect(CallDialects.POSTGRES)
+                .in("s2", "def")
+                .in("s1", "abc");
+        assertEquals("abcdef", jdbc.execute(call));
+        assertEquals("{? = call get_concat(s2 => ?, s1 => ?)}", call.getSql());
+    }
+
+    @Test
+    public void testNamedProcedure() {
+        Out<BigDecimal> sum = Out.of(NUMERIC);
+        Out<BigDecimal> mlt = Out.of(NUMERIC);
+        NamedJdbcCall<Void> call = call("test_math")
+                .dialect(CallDialects.detect(jdbc.getDataSource()))
+                .in("val2", 20)
+                .in("val1", 10)
+                .inOut("out_sum", BigDecimal.ZERO, sum)
+                .inOut("out_mlt", BigDecimal.ZERO, mlt);
+        jdbc.execute(call);
+        assertEquals("call test_math(val2 => ?, val1 => ?, out_sum => ?, out_mlt => ?)", call.getSql());
+        assertEquals(30, sum.get().intValue());
+        assertEquals(200, mlt.get().intValue());
+    }
+
     private static class HiLo {
         int hi;
         int lo;
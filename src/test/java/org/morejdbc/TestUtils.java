@@ -1,17 +1,24 @@
 package org.morejdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.datasource.SmartDataSource;
 
+import javax.sql.DataSource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.Statement;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -99,4 +106,52 @@ class TestUtils {
     static SmartDataSource smartDataSource(Connection connection) {
         return new SingleConnectionDataSource(connection, false);
     }
+
+    /**
+     * Data source which returns the proxies of the physical connection like the pools do (e.g. HikariCP):
+     * the statements created via the proxy are closed when the proxy is closed (returned to the pool).
+     */
+    static DataSource pooledDataSource(Connection connection) {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() {
+                return pooledConnection(connection);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) {
+                return pooledConnection(connection);
+            }
+        };
+    }
+
+    private static Connection pooledConnection(Connection connection) {
+        List<Statement> statements = new ArrayList<>();
+        return (Connection) Proxy.newProxyInstance(TestUtils.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            for (Statement statement : statements) {
+                                statement.close();
+                            }
+                            statements.clear();
+                            return null;
+                        case "isWrapperFor":
+                            return args[0] == Connection.class || connection.isWrapperFor((Class<?>) args[0]);
+                        case "unwrap":
+                            return args[0] == Connection.class ? connection : connection.unwrap((Class<?>) args[0]);
+                        default:
+                            Object result;
+                            try {
+                                result = method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                            if (result instanceof Statement) {
+                                statements.add((Statement) result);
+                            }
+                            return result;
+                    }
+                });
+    }
 }